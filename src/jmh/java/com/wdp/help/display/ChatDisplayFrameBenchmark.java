@@ -0,0 +1,111 @@
+package com.wdp.help.display;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The thinking animation's per-frame strings, translated every frame (before)
+ * versus concatenated from strings rendered once at reload (after)
+ * The after methods mirror ChatDisplay.buildThinkingMessage and the header and
+ * AI prefix lookups; setUp renders like ConfigManager.renderDisplayStrings and
+ * MessageManager.loadMessages. Inputs are the bundled config.yml and messages.yml defaults.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatDisplayFrameBenchmark {
+    
+    private static final String HEADER = "&#FFD700━━━━ &#FFFFFF&lWDP Help &#FFD700━━━━";
+    private static final String AI_PREFIX = "&#55FFFF";
+    private static final String THINKING_INITIAL = "&#AAAAAA● &#FFFFFFThinking...";
+    private static final String[] DOTS_PATTERN = {
+            "&#FFD700● &#AAAAAA○ ○",
+            "&#AAAAAA○ &#FFD700● &#AAAAAA○",
+            "&#AAAAAA○ ○ &#FFD700●"
+    };
+    private static final List<String> THINKING_MESSAGES = List.of(
+            "&#AAAAAASearching through server knowledge...",
+            "&#AAAAAAConsulting the ancient scrolls...",
+            "&#AAAAAADigging through my memories...");
+    
+    private String renderedHeader;
+    private String renderedAiPrefixStripped;
+    private String renderedThinkingInitial;
+    private String[] renderedDotsPattern;
+    private List<String> renderedThinkingMessages;
+    
+    // Advances every frame, like ChatDisplay's dotPosition and messageIndex
+    private int frame;
+    
+    @Setup
+    public void setUp() {
+        renderedHeader = ColorTranslator.translate(HEADER);
+        renderedAiPrefixStripped = ColorTranslator.stripColors(AI_PREFIX);
+        renderedThinkingInitial = ColorTranslator.translate(THINKING_INITIAL.replace("&#AAAAAA● &#FFFFFF", ""));
+        renderedDotsPattern = new String[DOTS_PATTERN.length];
+        for (int i = 0; i < DOTS_PATTERN.length; i++) {
+            renderedDotsPattern[i] = ColorTranslator.translate(DOTS_PATTERN[i]);
+        }
+        renderedThinkingMessages = THINKING_MESSAGES.stream().map(ColorTranslator::translate).toList();
+    }
+    
+    @Benchmark
+    public String initialFrameBefore() {
+        String dots = DOTS_PATTERN[frame++ % DOTS_PATTERN.length];
+        return LegacyColorTranslator.translateHexColors(dots + " " + THINKING_INITIAL.replace("&#AAAAAA● &#FFFFFF", ""));
+    }
+    
+    @Benchmark
+    public String initialFrameAfter() {
+        String dots = renderedDotsPattern[frame++ % renderedDotsPattern.length];
+        return dots + " " + renderedThinkingInitial;
+    }
+    
+    @Benchmark
+    public String rotatingFrameBefore() {
+        String dots = DOTS_PATTERN[frame % DOTS_PATTERN.length];
+        String statusMsg = THINKING_MESSAGES.get(frame++ % THINKING_MESSAGES.size());
+        return LegacyColorTranslator.translateHexColors(dots + " " + statusMsg);
+    }
+    
+    @Benchmark
+    public String rotatingFrameAfter() {
+        String dots = renderedDotsPattern[frame % renderedDotsPattern.length];
+        String statusMsg = renderedThinkingMessages.get(frame++ % renderedThinkingMessages.size());
+        return dots + " " + statusMsg;
+    }
+    
+    @Benchmark
+    public String headerBefore() {
+        return LegacyColorTranslator.translateHexColors(HEADER);
+    }
+    
+    @Benchmark
+    public String headerAfter() {
+        return renderedHeader;
+    }
+    
+    @Benchmark
+    public String aiPrefixBefore() {
+        return LegacyColorTranslator.translateHexColors(AI_PREFIX).replaceAll("§[0-9a-f]", "");
+    }
+    
+    @Benchmark
+    public String aiPrefixAfter() {
+        return renderedAiPrefixStripped;
+    }
+}
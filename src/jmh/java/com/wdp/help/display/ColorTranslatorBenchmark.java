@@ -0,0 +1,64 @@
+package com.wdp.help.display;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColorTranslator against the regex translateHexColors it replaced, on typical answer lines
+ * translateSections is compared with the old answer path, replace('§', '&') then translate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorTranslatorBenchmark {
+    
+    private static final Map<String, String> LINES = Map.of(
+            "plain", "Use /sethome <name> to save where you stand, then /home <name> to get back there.",
+            "hex", "&#55FFFFTip: &#FFFFFFUse &#FFAA00/sethome <name>&#FFFFFF to save where you stand.",
+            "legacy", "§aSure! §7Type §e/spawn§7 to go back, or §l/rtp§r§7 for a random spot.");
+    
+    @Param({"plain", "hex", "legacy"})
+    private String line;
+    
+    private String input;
+    
+    @Setup
+    public void setUp() {
+        input = LINES.get(line);
+    }
+    
+    @Benchmark
+    public String regexTranslate() {
+        return LegacyColorTranslator.translateHexColors(input);
+    }
+    
+    @Benchmark
+    public String translate() {
+        return ColorTranslator.translate(input);
+    }
+    
+    @Benchmark
+    public String regexTranslateSections() {
+        return LegacyColorTranslator.translateHexColors(input.replace('§', '&'));
+    }
+    
+    @Benchmark
+    public String translateSections() {
+        return ColorTranslator.translateSections(input);
+    }
+}
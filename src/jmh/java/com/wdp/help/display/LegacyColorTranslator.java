@@ -0,0 +1,44 @@
+package com.wdp.help.display;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex based translateHexColors that ColorTranslator replaced, kept as the
+ * benchmark baseline (HEX_PATTERN + ChatColor.of + translateAlternateColorCodes,
+ * with the two ChatColor calls inlined so no server classes are needed)
+ */
+final class LegacyColorTranslator {
+    
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final String ALT_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    
+    private LegacyColorTranslator() {
+    }
+    
+    static String translateHexColors(String message) {
+        if (message == null) return "";
+        
+        Matcher matcher = HEX_PATTERN.matcher(message);
+        StringBuilder builder = new StringBuilder();
+        
+        while (matcher.find()) {
+            StringBuilder magic = new StringBuilder("§x");
+            for (char c : matcher.group(1).toLowerCase().toCharArray()) {
+                magic.append('§').append(c);
+            }
+            matcher.appendReplacement(builder, magic.toString());
+        }
+        matcher.appendTail(builder);
+        
+        // Also translate legacy color codes
+        char[] chars = builder.toString().toCharArray();
+        for (int i = 0; i < chars.length - 1; i++) {
+            if (chars[i] == '&' && ALT_CODES.indexOf(chars[i + 1]) > -1) {
+                chars[i] = '§';
+                chars[i + 1] = Character.toLowerCase(chars[i + 1]);
+            }
+        }
+        return new String(chars);
+    }
+}
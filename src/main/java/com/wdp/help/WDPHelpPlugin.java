@@ -1,16 +1,32 @@
 package com.wdp.help;
 
 import com.wdp.help.ai.AIService;
+import com.wdp.help.cache.AnswerCache;
+import com.wdp.help.cache.AnswerCacheSnapshot;
+import com.wdp.help.cache.CacheWarmer;
 import com.wdp.help.command.HelpCommand;
+import com.wdp.help.completion.AsyncTabCompleteListener;
+import com.wdp.help.completion.TabCompletionService;
 import com.wdp.help.config.ConfigManager;
 import com.wdp.help.config.MessageManager;
 import com.wdp.help.context.ContextManager;
 import com.wdp.help.data.PlayerDataManager;
-import net.md_5.bungee.api.ChatColor;
+import com.wdp.help.data.QuestionStatsManager;
+import com.wdp.help.display.AnswerPageStore;
+import com.wdp.help.display.ChatOutputScheduler;
+import com.wdp.help.display.ColorTranslator;
+import com.wdp.help.display.HelpMenuCache;
+import com.wdp.help.faq.FaqManager;
+import com.wdp.help.listener.PlayerQuitListener;
+import com.wdp.help.metrics.HelpMetrics;
+import com.wdp.help.question.QuestionCanonicalizer;
+import com.wdp.help.question.RelevanceFilter;
+import com.wdp.help.scheduler.TaskScheduler;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * WDP-Help - AI-Powered Help System for WDP Server
@@ -26,12 +42,21 @@ public class WDPHelpPlugin extends JavaPlugin {
     // Managers
     private ConfigManager configManager;
     private MessageManager messageManager;
+    private QuestionCanonicalizer canonicalizer;
     private ContextManager contextManager;
+    private FaqManager faqManager;
+    private RelevanceFilter relevanceFilter;
     private PlayerDataManager playerDataManager;
+    private QuestionStatsManager questionStats;
     private AIService aiService;
-    
-    // Hex color pattern
-    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private ChatOutputScheduler outputScheduler;
+    private TaskScheduler taskScheduler;
+    private AnswerPageStore pageStore;
+    private HelpMenuCache menuCache;
+    private HelpMetrics metrics;
+    private TabCompletionService tabCompletion;
+    private AnswerCache answerCache;
+    private CacheWarmer cacheWarmer;
     
     @Override
     public void onEnable() {
@@ -51,19 +76,53 @@ public class WDPHelpPlugin extends JavaPlugin {
         // Extract default context files
         extractContextFiles();
         
+        // Extract default FAQ entries
+        extractFaqFiles();
+        
+        // Relevance index over the loaded context files and FAQ entries
+        relevanceFilter.rebuild(configManager, contextManager, faqManager.getEntries());
+        
         // Register commands
         registerCommands();
         
+        // Restore cached answers from the last run, then warm the rest
+        loadCacheSnapshot();
+        cacheWarmer.start();
+        
         getLogger().info("WDP-Help has been enabled successfully!");
     }
     
     @Override
     public void onDisable() {
+        // Stop cache warm-up
+        if (cacheWarmer != null) {
+            cacheWarmer.stop();
+        }
+        
+        // Keep cached answers for the next start
+        saveCacheSnapshot();
+        
+        // Stop completion rebuilds
+        if (tabCompletion != null) {
+            tabCompletion.stop();
+        }
+        
+        // Stop chat output
+        if (outputScheduler != null) {
+            outputScheduler.stop();
+        }
+        
         // Save player data
         if (playerDataManager != null) {
             playerDataManager.saveAll();
         }
         
+        // Save question stats
+        if (questionStats != null) {
+            questionStats.stop();
+            questionStats.save();
+        }
+        
         // Shutdown AI service
         if (aiService != null) {
             aiService.shutdown();
@@ -80,11 +139,38 @@ public class WDPHelpPlugin extends JavaPlugin {
         // Messages
         messageManager = new MessageManager(this);
         
+        // Question matching
+        canonicalizer = new QuestionCanonicalizer(configManager);
+        
+        // Scheduler (Bukkit main thread or Folia region threads)
+        taskScheduler = TaskScheduler.create(this);
+        if (taskScheduler.isRegionThreaded()) {
+            getLogger().info("Folia detected - using region schedulers.");
+        }
+        
+        // Metrics and chat output
+        metrics = new HelpMetrics();
+        outputScheduler = new ChatOutputScheduler(this, taskScheduler);
+        outputScheduler.start();
+        pageStore = new AnswerPageStore();
+        menuCache = new HelpMenuCache();
+        
         // Context
         contextManager = new ContextManager(this);
+        faqManager = new FaqManager(this);
+        relevanceFilter = new RelevanceFilter(canonicalizer);
         
         // Player data
         playerDataManager = new PlayerDataManager(this);
+        questionStats = new QuestionStatsManager(this);
+        questionStats.start();
+        
+        // Tab completion (index is built once context files are extracted)
+        tabCompletion = new TabCompletionService(this);
+        
+        // Answer cache
+        answerCache = new AnswerCache(canonicalizer, configManager.getCacheMaxEntries(), configManager.getCacheTtlMillis());
+        cacheWarmer = new CacheWarmer(this);
         
         // AI Service
         aiService = new AIService(this);
@@ -118,10 +204,69 @@ public class WDPHelpPlugin extends JavaPlugin {
         contextManager.loadContextFiles();
     }
     
+    private void extractFaqFiles() {
+        // Extract FAQ files if they don't exist
+        String[] faqFiles = {
+            "faq/set-home.yml",
+            "faq/discord-link.yml"
+        };
+        
+        for (String file : faqFiles) {
+            java.io.File f = new java.io.File(getDataFolder(), file);
+            if (!f.exists()) {
+                saveResource(file, false);
+                getLogger().info("Extracted FAQ file: " + file);
+            }
+        }
+        
+        faqManager.loadFaqFiles();
+    }
+    
+    /**
+     * Load the answer cache snapshot written on the last shutdown
+     */
+    private void loadCacheSnapshot() {
+        if (!configManager.isCacheEnabled() || !configManager.isCachePersistEnabled()) {
+            return;
+        }
+        try {
+            List<AnswerCache.Entry> entries = AnswerCacheSnapshot.load(getCacheSnapshotFile());
+            answerCache.restore(entries, contextManager);
+            if (!entries.isEmpty()) {
+                getLogger().info("Restored " + answerCache.size() + " of " + entries.size() + " cached answers.");
+            }
+        } catch (IOException e) {
+            getLogger().warning("Failed to load answer cache snapshot: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the answer cache snapshot
+     */
+    private void saveCacheSnapshot() {
+        if (answerCache == null || contextManager == null || !configManager.isCachePersistEnabled()) {
+            return;
+        }
+        try {
+            AnswerCacheSnapshot.save(getCacheSnapshotFile(), answerCache.snapshot());
+        } catch (IOException e) {
+            getLogger().warning("Failed to save answer cache snapshot: " + e.getMessage());
+        }
+    }
+    
+    private File getCacheSnapshotFile() {
+        return new File(getDataFolder(), "answer_cache.bin");
+    }
+    
     private void registerCommands() {
         HelpCommand helpCommand = new HelpCommand(this);
         getCommand("help").setExecutor(helpCommand);
         getCommand("help").setTabCompleter(helpCommand);
+        getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
+        if (AsyncTabCompleteListener.register(this, tabCompletion)) {
+            getLogger().info("Using Paper async tab completion.");
+        }
+        tabCompletion.start();
         getLogger().info("Commands registered.");
     }
     
@@ -132,8 +277,23 @@ public class WDPHelpPlugin extends JavaPlugin {
         reloadConfig();
         configManager.reload();
         messageManager.reload();
+        canonicalizer.reload(configManager);
+        pageStore.clearAll();
+        menuCache.clearAll();
         contextManager.loadContextFiles();
+        faqManager.loadFaqFiles();
+        relevanceFilter.rebuild(configManager, contextManager, faqManager.getEntries());
+        questionStats.start();
+        tabCompletion.start();
         aiService.reload();
+        
+        // Only answers built from changed context files are dropped and re-asked
+        answerCache.configure(configManager.getCacheMaxEntries(), configManager.getCacheTtlMillis());
+        int evicted = answerCache.evictStale(contextManager);
+        if (evicted > 0) {
+            getLogger().info("Evicted " + evicted + " cached answers with changed context.");
+        }
+        cacheWarmer.start();
         getLogger().info("Configuration reloaded.");
     }
     
@@ -151,37 +311,69 @@ public class WDPHelpPlugin extends JavaPlugin {
         return messageManager;
     }
     
+    public QuestionCanonicalizer getCanonicalizer() {
+        return canonicalizer;
+    }
+    
     public ContextManager getContextManager() {
         return contextManager;
     }
     
+    public FaqManager getFaqManager() {
+        return faqManager;
+    }
+    
+    public RelevanceFilter getRelevanceFilter() {
+        return relevanceFilter;
+    }
+    
     public PlayerDataManager getPlayerDataManager() {
         return playerDataManager;
     }
     
+    public QuestionStatsManager getQuestionStats() {
+        return questionStats;
+    }
+    
+    public AnswerCache getAnswerCache() {
+        return answerCache;
+    }
+    
     public AIService getAIService() {
         return aiService;
     }
     
+    public ChatOutputScheduler getOutputScheduler() {
+        return outputScheduler;
+    }
+    
+    public AnswerPageStore getPageStore() {
+        return pageStore;
+    }
+    
+    public HelpMenuCache getMenuCache() {
+        return menuCache;
+    }
+    
+    public TabCompletionService getTabCompletion() {
+        return tabCompletion;
+    }
+    
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+    
+    public HelpMetrics getMetrics() {
+        return metrics;
+    }
+    
     // ============ Utility Methods ============
     
     /**
      * Translate hex colors in a string
-     * Supports &#RRGGBB format
+     * Supports &#RRGGBB format and legacy &-codes (single pass, see ColorTranslator)
      */
     public static String translateHexColors(String message) {
-        if (message == null) return "";
-        
-        Matcher matcher = HEX_PATTERN.matcher(message);
-        StringBuilder builder = new StringBuilder();
-        
-        while (matcher.find()) {
-            String hex = matcher.group(1);
-            matcher.appendReplacement(builder, ChatColor.of("#" + hex).toString());
-        }
-        matcher.appendTail(builder);
-        
-        // Also translate legacy color codes
-        return ChatColor.translateAlternateColorCodes('&', builder.toString());
+        return ColorTranslator.translate(message);
     }
 }
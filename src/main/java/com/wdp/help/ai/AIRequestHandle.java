@@ -0,0 +1,215 @@
+package com.wdp.help.ai;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Cancellable handle for one AI request
+ * Cancelling drops the request if it is still queued, aborts the HTTP
+ * exchange if it is running (the blocked read fails at once) and runs the
+ * registered cancel callbacks, e.g. to stop the thinking animation.
+ * Callbacks of a cancelled request are never invoked: a request ends exactly
+ * once, either finished or cancelled, whichever happens first.
+ * A request sent to several endpoints (failover, hedging) gets one child
+ * handle per attempt; cancelling or aborting the request covers them all.
+ */
+public class AIRequestHandle {
+    
+    private static final int RUNNING = 0;
+    private static final int FINISHED = 1;
+    private static final int CANCELLED = 2;
+    
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final List<Runnable> cancelCallbacks = new ArrayList<>();
+    private volatile HttpURLConnection connection;
+    private volatile int status;
+    
+    // Per-endpoint attempts of this request, and the request an attempt belongs to
+    private final List<AIRequestHandle> attempts = new ArrayList<>();
+    private final AIRequestHandle parent;
+    private final AtomicBoolean firstToken = new AtomicBoolean();
+    private volatile Runnable firstTokenListener;
+    
+    // Position in the dispatch queue (0 = not waiting) and who wants to know
+    private volatile int queuePosition;
+    private volatile IntConsumer queueListener;
+    
+    public AIRequestHandle() {
+        this(null);
+    }
+    
+    private AIRequestHandle(AIRequestHandle parent) {
+        this.parent = parent;
+    }
+    
+    /**
+     * Cancel the request
+     * @return true if this call cancelled it, false if it was already finished or cancelled
+     */
+    public boolean cancel() {
+        if (!state.compareAndSet(RUNNING, CANCELLED)) {
+            return false;
+        }
+        
+        HttpURLConnection current = connection;
+        if (current != null) {
+            current.disconnect();
+        }
+        for (AIRequestHandle attempt : attemptsSnapshot()) {
+            attempt.cancel();
+        }
+        
+        List<Runnable> callbacks;
+        synchronized (cancelCallbacks) {
+            callbacks = new ArrayList<>(cancelCallbacks);
+            cancelCallbacks.clear();
+        }
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+        return true;
+    }
+    
+    /**
+     * Run a callback when the request is cancelled (at once if it already was)
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (cancelCallbacks) {
+            if (state.get() != CANCELLED) {
+                cancelCallbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+    
+    /**
+     * Be told the request's queue position whenever it changes (0 once it is dispatched)
+     * The current position is reported at once if the request is already waiting.
+     */
+    public void onQueuePosition(IntConsumer listener) {
+        this.queueListener = listener;
+        int position = queuePosition;
+        if (position > 0) {
+            listener.accept(position);
+        }
+    }
+    
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+    
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+    
+    public boolean isFinished() {
+        return state.get() == FINISHED;
+    }
+    
+    /**
+     * Mark the request as done; later cancels are no-ops
+     * @return true if this call finished it (deliver the result), false if it was cancelled or finished already
+     */
+    boolean finish() {
+        if (!state.compareAndSet(RUNNING, FINISHED)) {
+            return false;
+        }
+        synchronized (cancelCallbacks) {
+            cancelCallbacks.clear();
+        }
+        return true;
+    }
+    
+    /**
+     * Update the queue position, notifying the listener if it changed
+     */
+    void setQueuePosition(int position) {
+        if (queuePosition == position) {
+            return;
+        }
+        queuePosition = position;
+        IntConsumer listener = queueListener;
+        if (listener != null) {
+            listener.accept(position);
+        }
+    }
+    
+    /**
+     * Start a per-endpoint attempt of this request (cancelled at once if the request already is)
+     */
+    AIRequestHandle newAttempt() {
+        AIRequestHandle attempt = new AIRequestHandle(this);
+        synchronized (attempts) {
+            attempts.add(attempt);
+        }
+        if (isCancelled()) {
+            attempt.cancel();
+        }
+        return attempt;
+    }
+    
+    /**
+     * Run a callback when the first token of this attempt arrives
+     */
+    void onFirstToken(Runnable listener) {
+        this.firstTokenListener = listener;
+    }
+    
+    /**
+     * A token (or the whole non-streamed response) arrived; only the first call notifies
+     */
+    void firstToken() {
+        Runnable listener = firstTokenListener;
+        if (firstToken.compareAndSet(false, true) && listener != null) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * HTTP status of the latest response of any attempt (0 before any response)
+     */
+    int getStatus() {
+        return status;
+    }
+    
+    void setStatus(int status) {
+        this.status = status;
+        if (parent != null) {
+            parent.setStatus(status);
+        }
+    }
+    
+    /**
+     * Abort the current connections without cancelling (the worker sees a failed read)
+     */
+    void abort() {
+        HttpURLConnection current = connection;
+        if (current != null) {
+            current.disconnect();
+        }
+        for (AIRequestHandle attempt : attemptsSnapshot()) {
+            attempt.abort();
+        }
+    }
+    
+    private List<AIRequestHandle> attemptsSnapshot() {
+        synchronized (attempts) {
+            return new ArrayList<>(attempts);
+        }
+    }
+    
+    /**
+     * Attach the connection currently in use, aborting it if already cancelled
+     */
+    void attach(HttpURLConnection connection) {
+        this.connection = connection;
+        if (isCancelled()) {
+            connection.disconnect();
+        }
+    }
+}
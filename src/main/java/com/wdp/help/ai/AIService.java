@@ -5,26 +5,37 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.cache.AnswerCache;
+import com.wdp.help.cache.ContextDependencies;
 import com.wdp.help.config.ConfigManager;
 import com.wdp.help.context.ContextFile;
 import com.wdp.help.data.HelpAnswer;
 import com.wdp.help.data.PlayerHelpData;
+import com.wdp.help.question.QuestionCanonicalizer;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -35,11 +46,41 @@ public class AIService {
     
     private final WDPHelpPlugin plugin;
     private final Gson gson;
-    private ExecutorService executor;
+    private volatile ExecutorService executor;
+    
+    // Runs hedge attempts; separate so a hedge never waits behind the request that started it
+    private volatile ExecutorService hedgeExecutor;
     private int maxThreads;
     private int maxQueueSize;
     private boolean warningEnabled;
     
+    // Player requests currently running (the cache warm-up yields to these)
+    private final AtomicInteger playerRequests = new AtomicInteger();
+    
+    // Queued or running request per player, for cancellation
+    private final Map<UUID, AIRequestHandle> playerHandles = new ConcurrentHashMap<>();
+    // Discord link state seen at each player's latest question (looked up off the main thread)
+    private final Map<UUID, String> linkStates = new ConcurrentHashMap<>();
+    
+    // Enforces first-token, idle and total budgets of running requests
+    private final DeadlineWatchdog watchdog;
+    
+    // Adaptive limit on concurrent upstream requests
+    private final AdaptiveConcurrencyLimiter limiter;
+    
+    // Player requests waiting for a limiter slot, by priority and fair share
+    private final FairRequestQueue requestQueue;
+    
+    // Client-side request/token budgets and upstream-requested pauses
+    private final UpstreamRateLimiter rateLimiter;
+    
+    // Picks the endpoint for each attempt, with a circuit breaker per endpoint
+    private final EndpointRouter router;
+    
+    // DiscordSRV link states; also the answer cache variants ("" without DiscordSRV)
+    private static final String DISCORD_LINKED = "discord-linked";
+    private static final String DISCORD_UNLINKED = "discord-unlinked";
+    
     private static final String SYSTEM_PROMPT = """
         You are a confident and knowledgeable helper for the WDP Minecraft Server. Answer player questions with authority and clarity.
         
@@ -100,6 +141,26 @@ public class AIService {
     public AIService(WDPHelpPlugin plugin) {
         this.plugin = plugin;
         this.gson = new Gson();
+        this.watchdog = new DeadlineWatchdog((deadline, reason) -> {
+            if (warningEnabled) {
+                plugin.getLogger().warning("[AI-SERVICE] Request timed out (" + reason + " budget) after " + 
+                    deadline.getElapsedMillis() + "ms");
+            }
+        });
+        ConfigManager config = plugin.getConfigManager();
+        this.limiter = new AdaptiveConcurrencyLimiter(config.getConcurrencyInitialLimit(), config.getConcurrencyMinLimit(),
+                config.getMaxThreads(), config.getConcurrencyBackoffRatio(), config.getConcurrencyLatencyTolerance());
+        this.requestQueue = new FairRequestQueue(config.getThreadQueueSize(), config.getQueueUsageHalfLife());
+        this.rateLimiter = new UpstreamRateLimiter(config.getRateLimitRequestsPerMinute(), config.getRateLimitTokensPerMinute(),
+                config.getRateLimitPlayerRequestsPerMinute());
+        this.router = new EndpointRouter((endpoint, from, to, reason) -> {
+            String message = "[AI-SERVICE] Endpoint " + endpoint.getName() + " circuit breaker " + from + " -> " + to + " (" + reason + ")";
+            if (to == CircuitBreaker.State.OPEN) {
+                plugin.getLogger().warning(message);
+            } else {
+                plugin.getLogger().info(message);
+            }
+        });
         initializeExecutor();
     }
     
@@ -109,20 +170,43 @@ public class AIService {
         maxThreads = config.getMaxThreads();
         maxQueueSize = config.getThreadQueueSize();
         
-        this.executor = new ThreadPoolExecutor(
-            2, 
+        // Player requests wait in the fair queue and are only handed to the pool once
+        // they hold a limiter slot (limit <= max-threads), so the pool never has to queue
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            maxThreads, 
             maxThreads, 
             30L, 
             TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>(maxQueueSize),
-            (r, exec) -> {
-                if (warningEnabled) {
-                    plugin.getLogger().warning("[AI-SERVICE] Task queue full, dropping request. Active: " + 
-                        ((ThreadPoolExecutor) exec).getActiveCount() + ", Queue: " + 
-                        exec.getQueue().size());
-                }
-            }
+            new LinkedBlockingQueue<>()
         );
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        this.hedgeExecutor = new ThreadPoolExecutor(0, maxThreads, 30L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        limiter.configure(config.getConcurrencyMinLimit(), maxThreads, config.getConcurrencyBackoffRatio(), config.getConcurrencyLatencyTolerance());
+        requestQueue.configure(maxQueueSize, config.getQueueUsageHalfLife());
+        rateLimiter.configure(config.getRateLimitRequestsPerMinute(), config.getRateLimitTokensPerMinute(),
+                config.getRateLimitPlayerRequestsPerMinute());
+        router.configure(config.getEndpoints(), config.isCircuitBreakerEnabled(), config.getCircuitBreakerWindowSize(), config.getCircuitBreakerMinCalls(),
+                config.getCircuitBreakerFailureRate(), config.getCircuitBreakerSlowCallMillis(),
+                config.getCircuitBreakerSlowCallRate(), config.getCircuitBreakerOpenSeconds());
+    }
+    
+    /**
+     * Dispatch waiting player requests while the limiter has free slots
+     */
+    private void pump() {
+        FairRequestQueue.Entry entry;
+        while ((entry = requestQueue.poll(limiter::tryAcquire)) != null) {
+            entry.getHandle().setQueuePosition(0);
+            try {
+                executor.execute(entry.getTask());
+            } catch (RejectedExecutionException e) {
+                // Pool shut down (plugin disabling)
+                limiter.release(AdaptiveConcurrencyLimiter.Outcome.IGNORE, 0);
+                entry.reject();
+            }
+        }
+        requestQueue.publishPositions();
     }
     
     private void logThreadWarning(String operation) {
@@ -130,7 +214,7 @@ public class AIService {
         
         ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
         int active = tpe.getActiveCount();
-        int queued = tpe.getQueue().size();
+        int queued = requestQueue.size();
         double usagePercent = (double) active / maxThreads * 100;
         
         if (usagePercent >= 80) {
@@ -144,120 +228,651 @@ public class AIService {
         if (executor != null && !executor.isShutdown()) {
             executor.shutdown();
         }
+        if (hedgeExecutor != null && !hedgeExecutor.isShutdown()) {
+            hedgeExecutor.shutdown();
+        }
         initializeExecutor();
+        pump();
     }
     
     public void shutdown() {
         if (executor != null && !executor.isShutdown()) {
             executor.shutdown();
         }
+        if (hedgeExecutor != null && !hedgeExecutor.isShutdown()) {
+            hedgeExecutor.shutdown();
+        }
+        watchdog.shutdown();
     }
     
-    public CompletableFuture<Void> askQuestion(
+    /**
+     * Answer a player's question, from the cache if possible
+     * @param model the model to ask (the relevance filter may pick a cheaper one)
+     * @param tier the player's queue tier while the help desk is busy
+     * @return a handle to cancel the request; callbacks stop once it is cancelled
+     */
+    public AIRequestHandle askQuestion(
             UUID playerUUID,
             String question,
+            String model,
+            PriorityTier tier,
             Consumer<String> onChunk,
             Consumer<String> onToolUse,
             Consumer<AIResponse> onComplete,
             Consumer<String> onError
     ) {
-        return CompletableFuture.runAsync(() -> {
+        AIRequestHandle handle = new AIRequestHandle();
+        Consumer<String> chunkIfActive = chunk -> {
+            if (!handle.isCancelled()) {
+                onChunk.accept(chunk);
+            }
+        };
+        Consumer<String> toolIfActive = message -> {
+            if (!handle.isCancelled()) {
+                onToolUse.accept(message);
+            }
+        };
+        // Only the call that finishes the request delivers, never after (or racing) a cancel
+        Consumer<AIResponse> completeIfActive = response -> {
+            if (handle.finish()) {
+                onComplete.accept(response);
+            }
+        };
+        Consumer<String> errorIfActive = error -> {
+            if (handle.finish()) {
+                onError.accept(error);
+            }
+        };
+        
+        // Answer from the cache without any network I/O (even a stale answer while the endpoint is down)
+        // Answers depend on the Discord link state; until it was looked up for this player, ask instead
+        AnswerCache cache = plugin.getAnswerCache();
+        boolean endpointDown = !router.allowsRequests();
+        String knownLinkState = isDiscordSrvEnabled() ? linkStates.get(playerUUID) : "";
+        AIResponse cached = config().isCacheEnabled() && knownLinkState != null
+                ? cache.get(question, knownLinkState, endpointDown) : null;
+        if (cached != null) {
+            plugin.getMetrics().recordCacheLookup(true);
+            CompletableFuture.runAsync(() -> {
+                chunkIfActive.accept(cached.getDisplayText());
+                completeIfActive.accept(cached);
+            });
+            return handle;
+        }
+        if (config().isCacheEnabled()) {
+            plugin.getMetrics().recordCacheLookup(false);
+        }
+        if (endpointDown) {
+            errorIfActive.accept("error.service-unavailable");
+            return handle;
+        }
+        
+        // Runs once dispatched, already holding a limiter slot; runs again if it had to wait for a rate limit
+        QuestionState state = new QuestionState();
+        Runnable task = () -> {
+            // Cancelled (e.g. the player quit) between dispatch and start
+            if (handle.isCancelled()) {
+                refundReservation(playerUUID, state);
+                limiter.release(AdaptiveConcurrencyLimiter.Outcome.IGNORE, 0);
+                pump();
+                return;
+            }
+            
+            playerRequests.incrementAndGet();
+            RequestDeadline deadline = state.deadline;
+            AtomicBoolean answered = new AtomicBoolean();
+            boolean requeued = false;
             try {
                 logThreadWarning("askQuestion");
                 ConfigManager config = plugin.getConfigManager();
                 
-                if (!config.isApiKeyConfigured()) {
-                    onError.accept("API key not configured!");
-                    return;
+                if (state.requestBody == null) {
+                    if (!config.isApiKeyConfigured()) {
+                        errorIfActive.accept("API key not configured!");
+                        return;
+                    }
+                    
+                    state.linkState = discordLinkState(playerUUID);
+                    linkStates.put(playerUUID, state.linkState);
+                    
+                    // The cache is shared by everyone with the same Discord link state, so an answer is
+                    // only cached if it was asked without the player's history or topic summary. A question
+                    // with related history is asked personally and not cached. Neither are answers from
+                    // the relevance filter's borderline model, which may be a cheaper, weaker one.
+                    state.shareable = config.isCacheEnabled() && config.getModel().equals(model)
+                            && !hasRelatedHistory(playerUUID, question);
+                    
+                    // The link state was not known (or changed) when the cache was looked up
+                    if (state.shareable && !state.linkState.equals(knownLinkState)) {
+                        AIResponse hit = cache.get(question, state.linkState);
+                        if (hit != null) {
+                            chunkIfActive.accept(hit.getDisplayText());
+                            completeIfActive.accept(hit);
+                            return;
+                        }
+                    }
+                    
+                    state.dependencies = new ContextDependencies();
+                    state.requestBody = buildRequestBody(state.shareable ? null : playerUUID, state.linkState, question, model,
+                            state.dependencies);
+                    state.estimatedTokens = estimateTokens(state.requestBody);
+                    
+                    // Reserve within the request timeout; the wait is spent back in the queue, not in this slot
+                    long wait = rateLimiter.reserve(playerUUID, state.estimatedTokens, TimeUnit.SECONDS.toNanos(config.getTimeout()));
+                    if (wait < 0) {
+                        errorIfActive.accept("error.rate-limit");
+                        return;
+                    }
+                    if (wait > 0) {
+                        state.reserved = true;
+                        requeued = requeue(state.entry, wait, () -> refundReservation(playerUUID, state));
+                        return;
+                    }
                 }
+                state.reserved = false;
                 
-                String context = buildContext(playerUUID);
-                
-                JsonArray messages = new JsonArray();
-                
-                JsonObject systemMessage = new JsonObject();
-                systemMessage.addProperty("role", "system");
-                systemMessage.addProperty("content", SYSTEM_PROMPT + "\n\n" + context);
-                messages.add(systemMessage);
-                
-                PlayerHelpData playerData = plugin.getPlayerDataManager().getData(playerUUID);
-                if (playerData != null) {
-                    for (HelpAnswer answer : playerData.getRecentAnswers()) {
-                        JsonObject userMsg = new JsonObject();
-                        userMsg.addProperty("role", "user");
-                        userMsg.addProperty("content", answer.getQuestion());
-                        messages.add(userMsg);
-                        
-                        JsonObject assistantMsg = new JsonObject();
-                        assistantMsg.addProperty("role", "assistant");
-                        assistantMsg.addProperty("content", answer.getShortDescription());
-                        messages.add(assistantMsg);
-                    }
+                // The deadline starts with the first send; a retry after a 429 pause keeps its total budget
+                if (deadline == null) {
+                    deadline = RequestDeadline.fromConfig(config);
+                    state.deadline = deadline;
+                } else {
+                    rateLimiter.charge(state.estimatedTokens);
                 }
+                watchdog.watch(deadline, handle);
                 
-                JsonObject userQuestion = new JsonObject();
-                userQuestion.addProperty("role", "user");
-                userQuestion.addProperty("content", question);
-                messages.add(userQuestion);
+                // Cache successful answers for everyone asking the same question
+                Consumer<AIResponse> completeAndCache = response -> {
+                    answered.set(true);
+                    if (state.shareable && isCacheable(response)) {
+                        cache.put(question, state.linkState, response, state.dependencies);
+                    }
+                    completeIfActive.accept(response);
+                };
                 
-                JsonObject requestBody = new JsonObject();
-                requestBody.addProperty("model", config.getModel());
-                requestBody.add("messages", messages);
-                requestBody.addProperty("max_tokens", config.getMaxTokens());
-                requestBody.addProperty("temperature", config.getTemperature());
-                requestBody.addProperty("stream", config.isStreamEnabled());
+                // A 429 on the first attempt is retried once after the pause upstream asked for
+                boolean mayRetry = state.attempts++ == 0;
+                AtomicBoolean rateLimited = new AtomicBoolean();
+                Consumer<String> errorOrRetry = error -> {
+                    if (mayRetry && handle.getStatus() == 429) {
+                        rateLimited.set(true);
+                    } else {
+                        errorIfActive.accept(error);
+                    }
+                };
                 
-                JsonObject responseFormat = new JsonObject();
-                responseFormat.addProperty("type", "json_object");
-                requestBody.add("response_format", responseFormat);
+                sendToEndpoints(state.requestBody, handle, deadline, state.dependencies, false, chunkIfActive, toolIfActive, completeAndCache, errorOrRetry);
                 
-                JsonArray tools = buildTools();
-                if (tools.size() > 0) {
-                    requestBody.add("tools", tools);
+                if (rateLimited.get()) {
+                    long pause = rateLimiter.getPauseRemainingNanos();
+                    if (pause >= TimeUnit.MILLISECONDS.toNanos(deadline.getRemainingMillis())) {
+                        errorIfActive.accept("error.rate-limit");
+                    } else {
+                        requeued = requeue(state.entry, pause, () -> { });
+                    }
                 }
                 
-                if (config.isLogRequests()) {
-                    plugin.getLogger().info("AI Request: " + gson.toJson(requestBody));
+            } catch (Exception e) {
+                // Aborting the connection makes the blocked read fail, that is not an error
+                if (handle.isCancelled()) {
+                    return;
                 }
-                
-                if (config.isStreamEnabled()) {
-                    streamRequest(requestBody, onChunk, onToolUse, onComplete, onError);
+                if (deadline != null && isTimeout(e, deadline)) {
+                    errorIfActive.accept("error.timeout");
+                    return;
+                }
+                plugin.getLogger().severe("AI Service error: " + e.getMessage());
+                e.printStackTrace();
+                errorIfActive.accept("An error occurred: " + e.getMessage());
+            } finally {
+                if (deadline != null) {
+                    watchdog.unwatch(deadline);
+                    limiter.release(outcomeOf(handle, deadline, answered.get()), deadline.getFirstTokenLatencyMillis());
                 } else {
-                    nonStreamRequest(requestBody, onChunk, onComplete, onError);
+                    limiter.release(AdaptiveConcurrencyLimiter.Outcome.IGNORE, 0);
+                }
+                playerRequests.decrementAndGet();
+                if (!requeued) {
+                    playerHandles.remove(playerUUID, handle);
+                }
+                pump();
+            }
+        };
+        
+        // A player over their own rate limit for longer than a request may wait is told to slow down
+        if (rateLimiter.getPlayerWaitNanos(playerUUID) > TimeUnit.SECONDS.toNanos(config().getTimeout())) {
+            errorIfActive.accept("error.rate-limit");
+            return handle;
+        }
+        
+        // Only one request per player; a cancelled one leaves the queue at once
+        FairRequestQueue.Entry entry = new FairRequestQueue.Entry(playerUUID, tier, handle, task, () -> {
+            playerHandles.remove(playerUUID, handle);
+            errorIfActive.accept("error.server-busy");
+        });
+        state.entry = entry;
+        playerHandles.put(playerUUID, handle);
+        handle.onCancel(() -> {
+            playerHandles.remove(playerUUID, handle);
+            if (requestQueue.remove(handle)) {
+                refundReservation(playerUUID, state);
+                requestQueue.publishPositions();
+            }
+        });
+        
+        if (!requestQueue.offer(entry)) {
+            if (warningEnabled) {
+                plugin.getLogger().warning("[AI-SERVICE] Request queue full (" + requestQueue.size() + 
+                    " waiting), turning a request away");
+            }
+            entry.reject();
+            return handle;
+        }
+        pump();
+        return handle;
+    }
+    
+    /**
+     * Cancel the queued or running request of a player
+     * @return true if a request was cancelled
+     */
+    public boolean cancel(UUID playerUUID) {
+        AIRequestHandle handle = playerHandles.get(playerUUID);
+        return handle != null && handle.cancel();
+    }
+    
+    /**
+     * Forget what was looked up for a player (they left)
+     */
+    public void forgetPlayer(UUID playerUUID) {
+        linkStates.remove(playerUUID);
+    }
+    
+    /**
+     * Answer a question without a player and store it in the answer cache
+     * Used by the cache warm-up; fails fast instead of queueing when no slot is free.
+     * @param linkState the Discord link state to answer for, one of {@link #getCacheVariants()}
+     */
+    public CompletableFuture<AIResponse> warmQuestion(String question, String linkState) {
+        CompletableFuture<AIResponse> result = new CompletableFuture<>();
+        
+        // Warm-up never waits for a slot, never overtakes waiting players and never probes a broken endpoint
+        if (requestQueue.size() > 0 || !router.isHealthy() || !limiter.tryAcquire()) {
+            result.completeExceptionally(new IllegalStateException("Concurrency limit reached"));
+            return result;
+        }
+        
+        Runnable task = () -> {
+            AIRequestHandle handle = new AIRequestHandle();
+            RequestDeadline deadline = RequestDeadline.fromConfig(config());
+            watchdog.watch(deadline, handle);
+            try {
+                ContextDependencies dependencies = new ContextDependencies();
+                JsonObject requestBody = buildRequestBody(null, linkState, question, config().getModel(), dependencies);
+                if (rateLimiter.reserve(null, estimateTokens(requestBody), 0L) < 0) {
+                    result.completeExceptionally(new IllegalStateException("Rate limit reached"));
+                    return;
                 }
+                Consumer<AIResponse> onComplete = response -> {
+                    if (isCacheable(response)) {
+                        plugin.getAnswerCache().put(question, linkState, response, dependencies);
+                    }
+                    result.complete(response);
+                };
+                Consumer<String> onError = error -> result.completeExceptionally(new IllegalStateException(error));
                 
+                sendToEndpoints(requestBody, handle, deadline, dependencies, true, chunk -> { }, tool -> { }, onComplete, onError);
             } catch (Exception e) {
-                plugin.getLogger().severe("AI Service error: " + e.getMessage());
-                e.printStackTrace();
-                onError.accept("An error occurred: " + e.getMessage());
+                result.completeExceptionally(e);
+            } finally {
+                watchdog.unwatch(deadline);
+                boolean answered = result.isDone() && !result.isCompletedExceptionally();
+                limiter.release(outcomeOf(handle, deadline, answered), deadline.getFirstTokenLatencyMillis());
+                pump();
             }
-        }, executor);
+        };
+        
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            limiter.release(AdaptiveConcurrencyLimiter.Outcome.IGNORE, 0);
+            result.completeExceptionally(e);
+        }
+        return result;
     }
     
-    private String buildContext(UUID playerUUID) {
-        StringBuilder context = new StringBuilder();
+    /**
+     * Classify a finished request for the concurrency limiter
+     */
+    private AdaptiveConcurrencyLimiter.Outcome outcomeOf(AIRequestHandle handle, RequestDeadline deadline, boolean answered) {
+        int status = handle.getStatus();
+        if (deadline.hasTimedOut() || status == 429 || status >= 500) {
+            return AdaptiveConcurrencyLimiter.Outcome.OVERLOAD;
+        }
+        if (answered && !handle.isCancelled()) {
+            return AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+        }
+        return AdaptiveConcurrencyLimiter.Outcome.IGNORE;
+    }
+    
+    /**
+     * Send a request to the best endpoint, failing over and hedging as configured
+     * Each attempt gets its own copy of the body, with the endpoint's model if it sets one.
+     * @param background cache warm-up: never probes a recovering endpoint and never hedges
+     */
+    private void sendToEndpoints(
+            JsonObject requestBody,
+            AIRequestHandle handle,
+            RequestDeadline deadline,
+            ContextDependencies dependencies,
+            boolean background,
+            Consumer<String> onChunk,
+            Consumer<String> onToolUse,
+            Consumer<AIResponse> onComplete,
+            Consumer<String> onError
+    ) throws Exception {
+        ConfigManager config = plugin.getConfigManager();
+        boolean hedging = config.isHedgingEnabled();
         
-        context.append("=== Player Information ===\n");
+        EndpointExchange.Transport transport = (endpoint, attempt, attemptDeadline, attemptIndex, chunk, tool, complete, error) -> {
+            JsonObject body = requestBody.deepCopy();
+            if (endpoint.getModel() != null) {
+                body.addProperty("model", endpoint.getModel());
+            }
+            // Failovers and hedges are extra upstream requests
+            if (attemptIndex > 0) {
+                rateLimiter.charge(estimateTokens(body));
+            }
+            // The question's deadline is watched for the total budget, each attempt for its own phases
+            watchdog.watch(attemptDeadline, attempt);
+            try {
+                if (config.isStreamEnabled()) {
+                    streamRequest(endpoint, body, attempt, attemptDeadline, dependencies, chunk, tool, complete, error);
+                } else {
+                    nonStreamRequest(endpoint, body, attempt, attemptDeadline, chunk, complete, error);
+                }
+            } finally {
+                watchdog.unwatch(attemptDeadline);
+            }
+        };
+        
+        EndpointExchange exchange = new EndpointExchange(router, transport, handle, deadline, hedgeExecutor, watchdog::schedule,
+                endpoint -> hedging ? router.getHedgeDelayMillis(endpoint, config.getHedgingPercentile(),
+                        config.getHedgingDefaultDelayMillis(), config.getHedgingMinDelayMillis()) : 0L,
+                background);
+        exchange.run(onChunk, onToolUse, onComplete, onError);
+    }
+    
+    /**
+     * Get the endpoint router (endpoint health and latency)
+     */
+    public EndpointRouter getRouter() {
+        return router;
+    }
+    
+    /**
+     * Get the adaptive concurrency limiter
+     */
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+    
+    /**
+     * Get the number of player requests waiting for a slot
+     */
+    public int getQueuedRequests() {
+        return requestQueue.size();
+    }
+    
+    /**
+     * Estimated tokens a request counts for: prompt at about 4 characters per token plus the completion limit
+     */
+    private int estimateTokens(JsonObject requestBody) {
+        return gson.toJson(requestBody).length() / 4 + config().getMaxTokens();
+    }
+    
+    /**
+     * Pause all requests if the response says a rate limit window is used up
+     */
+    private void noteRateLimitHeaders(int responseCode, HttpURLConnection connection) {
+        long pause = rateLimiter.onResponse(responseCode, connection::getHeaderField);
+        if (pause > 0 && warningEnabled) {
+            plugin.getLogger().warning("[AI-SERVICE] Upstream rate limit reached (HTTP " + responseCode + 
+                "), pausing requests for " + TimeUnit.NANOSECONDS.toMillis(pause) + "ms");
+        }
+    }
+    
+    /**
+     * Get the client-side rate limiter
+     */
+    public UpstreamRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Whether a request failed because a socket timeout or its deadline ran out
+     */
+    private boolean isTimeout(Exception e, RequestDeadline deadline) {
+        return e instanceof SocketTimeoutException || deadline.hasTimedOut();
+    }
+    
+    /**
+     * Whether no player request is running or waiting (warm-up yields otherwise)
+     */
+    public boolean isIdleForPlayers() {
+        return playerRequests.get() == 0 && requestQueue.size() == 0;
+    }
+    
+    /**
+     * Put a dispatched request back in the queue until a rate limit allows it
+     * Its limiter slot and worker are freed meanwhile, so one player waiting out
+     * their bucket (or an upstream pause) does not hold up everyone else.
+     * @param onCancelled runs if the request was cancelled before it was back in the queue
+     * @return true if it was queued again
+     */
+    private boolean requeue(FairRequestQueue.Entry entry, long waitNanos, Runnable onCancelled) {
+        requestQueue.requeue(entry, System.nanoTime() + waitNanos);
         
+        // Its cancel callback ran before it was back in the queue and found nothing to remove
+        if (entry.getHandle().isCancelled() && requestQueue.remove(entry.getHandle())) {
+            onCancelled.run();
+            return false;
+        }
+        try {
+            watchdog.schedule(this::pump, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+        requestQueue.publishPositions();
+        return true;
+    }
+    
+    /**
+     * Give back the rate limit reservation of a request cancelled before it used it
+     */
+    private void refundReservation(UUID playerUUID, QuestionState state) {
+        synchronized (state) {
+            if (!state.reserved) {
+                return;
+            }
+            state.reserved = false;
+        }
+        rateLimiter.refund(playerUUID, state.estimatedTokens);
+    }
+    
+    /**
+     * The answer cache variants: one per Discord link state, or just "" without DiscordSRV
+     */
+    public List<String> getCacheVariants() {
+        return isDiscordSrvEnabled() ? List.of(DISCORD_LINKED, DISCORD_UNLINKED) : List.of("");
+    }
+    
+    private boolean isDiscordSrvEnabled() {
+        org.bukkit.plugin.Plugin discordPlugin = plugin.getServer().getPluginManager().getPlugin("DiscordSRV");
+        return discordPlugin != null && discordPlugin.isEnabled();
+    }
+    
+    /**
+     * The player's DiscordSRV link state, or "" without DiscordSRV (may block, call off the main thread)
+     */
+    private String discordLinkState(UUID playerUUID) {
         try {
             org.bukkit.plugin.Plugin discordPlugin = plugin.getServer().getPluginManager().getPlugin("DiscordSRV");
             if (discordPlugin != null && discordPlugin.isEnabled()) {
                 Object accountLinkManager = discordPlugin.getClass().getMethod("getAccountLinkManager").invoke(discordPlugin);
                 Object discordId = accountLinkManager.getClass().getMethod("getDiscordId", UUID.class).invoke(accountLinkManager, playerUUID);
-                
-                if (discordId != null) {
-                    context.append("Discord Status: Linked (verified account)\n");
-                } else {
-                    context.append("Discord Status: Not linked (use /discord link to connect)\n");
-                }
+                return discordId != null ? DISCORD_LINKED : DISCORD_UNLINKED;
             }
         } catch (Exception e) {
         }
+        return "";
+    }
+    
+    /**
+     * Whether a player-independent answer may be replayed to everyone from the cache
+     * (answers below the relevance threshold are not even kept in the player's history)
+     */
+    private boolean isCacheable(AIResponse response) {
+        return response.getRelevanceScore() >= config().getRelevanceThreshold();
+    }
+    
+    /**
+     * Whether the player asked something related recently (the question builds on their history)
+     */
+    private boolean hasRelatedHistory(UUID playerUUID, String question) {
+        PlayerHelpData playerData = plugin.getPlayerDataManager().getData(playerUUID);
+        return playerData != null && !selectRelatedAnswers(playerData, question).isEmpty();
+    }
+    
+    /**
+     * Pick the recent answers whose questions share enough words with the new one
+     * @return at most context.history.related-turns answers, most recent first
+     */
+    private List<HelpAnswer> selectRelatedAnswers(PlayerHelpData playerData, String question) {
+        ConfigManager config = plugin.getConfigManager();
+        int limit = config.getHistoryRelatedTurns();
+        List<HelpAnswer> related = new ArrayList<>();
+        if (limit == 0) {
+            return related;
+        }
+        
+        QuestionCanonicalizer canonicalizer = plugin.getCanonicalizer();
+        String canonical = canonicalizer.canonicalize(question);
+        Map<HelpAnswer, Double> scores = new HashMap<>();
+        for (HelpAnswer answer : playerData.getRecentAnswers()) {
+            double similarity = QuestionCanonicalizer.similarity(canonical, canonicalizer.canonicalize(answer.getQuestion()));
+            if (similarity >= config.getHistoryMinSimilarity()) {
+                related.add(answer);
+                scores.put(answer, similarity);
+            }
+        }
+        
+        // Most similar first (stable sort keeps recency for ties), then back to recency order
+        List<HelpAnswer> best = new ArrayList<>(related);
+        best.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        if (best.size() > limit) {
+            related.retainAll(best.subList(0, limit));
+        }
+        return related;
+    }
+    
+    /**
+     * Build the chat completion request (system prompt, context, player history, question)
+     * @param playerUUID the player whose history to include, or null for an answer that can be shared
+     * @param linkState the player's Discord link state (see {@link #discordLinkState})
+     * @param dependencies collects the context files sent with the request
+     */
+    private JsonObject buildRequestBody(UUID playerUUID, String linkState, String question, String model,
+                                        ContextDependencies dependencies) {
+        ConfigManager config = plugin.getConfigManager();
+        String context = buildContext(linkState, dependencies);
+        
+        JsonArray messages = new JsonArray();
+        
+        JsonObject systemMessage = new JsonObject();
+        systemMessage.addProperty("role", "system");
+        systemMessage.addProperty("content", SYSTEM_PROMPT + "\n\n" + context);
+        messages.add(systemMessage);
+        
+        // History stays bounded: a one-line topic summary plus only the related turns
+        PlayerHelpData playerData = playerUUID == null ? null : plugin.getPlayerDataManager().getData(playerUUID);
+        if (playerData != null) {
+            List<HelpAnswer> related = selectRelatedAnswers(playerData, question);
+            
+            List<String> topics = playerData.getSummaryTopics();
+            for (HelpAnswer answer : related) {
+                topics.removeIf(topic -> topic.equalsIgnoreCase(answer.getTitle()));
+            }
+            if (!topics.isEmpty()) {
+                JsonObject summaryMsg = new JsonObject();
+                summaryMsg.addProperty("role", "system");
+                summaryMsg.addProperty("content", "Earlier topics this player asked about (most recent first): " + String.join("; ", topics));
+                messages.add(summaryMsg);
+            }
+            
+            // Oldest first, so the conversation reads in order
+            for (int i = related.size() - 1; i >= 0; i--) {
+                HelpAnswer answer = related.get(i);
+                JsonObject userMsg = new JsonObject();
+                userMsg.addProperty("role", "user");
+                userMsg.addProperty("content", answer.getQuestion());
+                messages.add(userMsg);
+                
+                JsonObject assistantMsg = new JsonObject();
+                assistantMsg.addProperty("role", "assistant");
+                assistantMsg.addProperty("content", answer.getShortDescription());
+                messages.add(assistantMsg);
+            }
+        }
+        
+        JsonObject userQuestion = new JsonObject();
+        userQuestion.addProperty("role", "user");
+        userQuestion.addProperty("content", question);
+        messages.add(userQuestion);
+        
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", model);
+        requestBody.add("messages", messages);
+        requestBody.addProperty("max_tokens", config.getMaxTokens());
+        requestBody.addProperty("temperature", config.getTemperature());
+        requestBody.addProperty("stream", config.isStreamEnabled());
+        
+        JsonObject responseFormat = new JsonObject();
+        responseFormat.addProperty("type", "json_object");
+        requestBody.add("response_format", responseFormat);
+        
+        JsonArray tools = buildTools();
+        if (tools.size() > 0) {
+            requestBody.add("tools", tools);
+        }
+        
+        if (config.isLogRequests()) {
+            plugin.getLogger().info("AI Request: " + gson.toJson(requestBody));
+        }
+        
+        return requestBody;
+    }
+    
+    private ConfigManager config() {
+        return plugin.getConfigManager();
+    }
+    
+    private String buildContext(String linkState, ContextDependencies dependencies) {
+        StringBuilder context = new StringBuilder();
+        
+        context.append("=== Player Information ===\n");
+        
+        if (DISCORD_LINKED.equals(linkState)) {
+            context.append("Discord Status: Linked (verified account)\n");
+        } else if (DISCORD_UNLINKED.equals(linkState)) {
+            context.append("Discord Status: Not linked (use /discord link to connect)\n");
+        }
         
         context.append("\n");
         
         List<ContextFile> defaultFiles = plugin.getContextManager().getDefaultContextFiles();
+        dependencies.setDefaultSetHash(plugin.getContextManager().getDefaultSetHash());
         for (ContextFile file : defaultFiles) {
+            dependencies.add(file);
             context.append("=== ").append(file.getTitle()).append(" ===\n");
             context.append(file.getContent()).append("\n\n");
         }
@@ -316,7 +931,11 @@ public class AIService {
     }
     
     private void streamRequest(
+            Endpoint endpoint,
             JsonObject requestBody,
+            AIRequestHandle handle,
+            RequestDeadline deadline,
+            ContextDependencies dependencies,
             Consumer<String> onChunk,
             Consumer<String> onToolUse,
             Consumer<AIResponse> onComplete,
@@ -324,16 +943,18 @@ public class AIService {
     ) throws IOException {
         ConfigManager config = plugin.getConfigManager();
         
-        URL url = new URL(config.getBaseUrl() + "/chat/completions");
+        URL url = new URL(endpoint.getBaseUrl() + "/chat/completions");
+        deadline.onRequestStart();
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        handle.attach(connection);
         
         try {
             connection.setRequestMethod("POST");
             connection.setDoOutput(true);
-            connection.setConnectTimeout(config.getTimeout() * 1000);
-            connection.setReadTimeout(config.getTimeout() * 1000);
+            connection.setConnectTimeout(deadline.getConnectTimeoutMillis());
+            connection.setReadTimeout(deadline.getReadTimeoutMillis());
             
-            for (Map.Entry<String, String> header : config.buildHeaders().entrySet()) {
+            for (Map.Entry<String, String> header : config.buildHeaders(endpoint).entrySet()) {
                 connection.setRequestProperty(header.getKey(), header.getValue());
             }
             
@@ -343,6 +964,8 @@ public class AIService {
             }
             
             int responseCode = connection.getResponseCode();
+            handle.setStatus(responseCode);
+            noteRateLimitHeaders(responseCode, connection);
             if (responseCode != 200) {
                 String errorBody = readErrorStream(connection);
                 handleApiError(responseCode, errorBody, onError);
@@ -358,6 +981,9 @@ public class AIService {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
+                    if (handle.isCancelled()) {
+                        return;
+                    }
                     if (line.startsWith("data: ")) {
                         String data = line.substring(6);
                         
@@ -384,6 +1010,8 @@ public class AIService {
                                     JsonObject choice = choices.get(0).getAsJsonObject();
                                     if (choice.has("delta")) {
                                         JsonObject delta = choice.getAsJsonObject("delta");
+                                        deadline.onChunk();
+                                        handle.firstToken();
                                         
                                         if (delta.has("tool_calls")) {
                                             isToolCall = true;
@@ -423,6 +1051,16 @@ public class AIService {
                 }
             }
             
+            if (handle.isCancelled()) {
+                return;
+            }
+            
+            // The watchdog cut the stream short
+            if (deadline.getExpiredReason() != null) {
+                onError.accept("error.timeout");
+                return;
+            }
+            
             if (isToolCall && toolCallId != null) {
                 String functionName = toolCallName.toString();
                 String arguments = toolCallArgs.toString().trim();
@@ -451,9 +1089,10 @@ public class AIService {
                     onToolUse.accept(toolMsg);
                     plugin.getLogger().info("[TOOL MESSAGE] Sent to user: " + toolMsg);
                     
-                    String toolResult = executeTool(functionName, arguments);
+                    String toolResult = executeTool(functionName, arguments, dependencies);
                     
-                    JsonArray messages = requestBody.getAsJsonArray("messages");
+                    // A copy, the original body is sent again by a retry or another endpoint
+                    JsonArray messages = requestBody.getAsJsonArray("messages").deepCopy();
                     
                     JsonObject assistantMessage = new JsonObject();
                     assistantMessage.addProperty("role", "assistant");
@@ -479,7 +1118,7 @@ public class AIService {
                     messages.add(toolMessage);
                     
                     JsonObject newRequestBody = new JsonObject();
-                    newRequestBody.addProperty("model", config.getModel());
+                    newRequestBody.addProperty("model", requestBody.get("model").getAsString());
                     newRequestBody.add("messages", messages);
                     newRequestBody.addProperty("max_tokens", config.getMaxTokens());
                     newRequestBody.addProperty("temperature", config.getTemperature());
@@ -489,7 +1128,13 @@ public class AIService {
                     responseFormat.addProperty("type", "json_object");
                     newRequestBody.add("response_format", responseFormat);
                     
-                    streamRequest(newRequestBody, onChunk, onToolUse, onComplete, onError);
+                    // The follow-up shares the deadline, it does not get a fresh budget
+                    if (deadline.isExpired()) {
+                        onError.accept("error.timeout");
+                        return;
+                    }
+                    rateLimiter.charge(estimateTokens(newRequestBody));
+                    streamRequest(endpoint, newRequestBody, handle, deadline, dependencies, onChunk, onToolUse, onComplete, onError);
                     return;
                 }
             }
@@ -609,7 +1254,7 @@ public class AIService {
         return null;
     }
     
-    private String executeTool(String functionName, String arguments) {
+    private String executeTool(String functionName, String arguments, ContextDependencies dependencies) {
         if (!functionName.equals("fetch_context")) {
             return "Unknown function: " + functionName;
         }
@@ -631,6 +1276,8 @@ public class AIService {
                 return "Context not found: " + contextName + ". Available contexts may not include this topic.";
             }
             
+            dependencies.add(file);
+            
             return "=== " + file.getTitle() + " ===\n" + file.getContent();
             
         } catch (Exception e) {
@@ -643,23 +1290,28 @@ public class AIService {
     }
     
     private void nonStreamRequest(
+            Endpoint endpoint,
             JsonObject requestBody,
+            AIRequestHandle handle,
+            RequestDeadline deadline,
             Consumer<String> onChunk,
             Consumer<AIResponse> onComplete,
             Consumer<String> onError
     ) throws IOException {
         ConfigManager config = plugin.getConfigManager();
         
-        URL url = new URL(config.getBaseUrl() + "/chat/completions");
+        URL url = new URL(endpoint.getBaseUrl() + "/chat/completions");
+        deadline.onRequestStart();
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        handle.attach(connection);
         
         try {
             connection.setRequestMethod("POST");
             connection.setDoOutput(true);
-            connection.setConnectTimeout(config.getTimeout() * 1000);
-            connection.setReadTimeout(config.getTimeout() * 1000);
+            connection.setConnectTimeout(deadline.getConnectTimeoutMillis());
+            connection.setReadTimeout(deadline.getReadTimeoutMillis());
             
-            for (Map.Entry<String, String> header : config.buildHeaders().entrySet()) {
+            for (Map.Entry<String, String> header : config.buildHeaders(endpoint).entrySet()) {
                 connection.setRequestProperty(header.getKey(), header.getValue());
             }
             
@@ -669,6 +1321,8 @@ public class AIService {
             }
             
             int responseCode = connection.getResponseCode();
+            handle.setStatus(responseCode);
+            noteRateLimitHeaders(responseCode, connection);
             if (responseCode != 200) {
                 String errorBody = readErrorStream(connection);
                 handleApiError(responseCode, errorBody, onError);
@@ -682,6 +1336,7 @@ public class AIService {
                     response.append(line);
                 }
             }
+            handle.firstToken();
             
             JsonObject jsonResponse = JsonParser.parseString(response.toString()).getAsJsonObject();
             String jsonContent = jsonResponse.getAsJsonArray("choices")
@@ -765,6 +1420,22 @@ public class AIService {
         onError.accept(errorKey);
     }
     
+    /**
+     * What a player's question has done so far, kept while it waits in the queue for a rate limit
+     */
+    private static final class QuestionState {
+        private FairRequestQueue.Entry entry;
+        private JsonObject requestBody;
+        private ContextDependencies dependencies;
+        private boolean shareable;
+        private int estimatedTokens;
+        private int attempts;
+        private RequestDeadline deadline;
+        private String linkState;
+        // Holds a rate limit reservation that no request has used yet
+        private boolean reserved;
+    }
+    
     public static class AIResponse {
         private final String displayText;
         private final String shortDescription;
@@ -0,0 +1,150 @@
+package com.wdp.help.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on concurrent upstream AI requests
+ * Every successful request raises the limit by 1/limit (about +1 per round
+ * of requests). A 429, 5xx or timeout cuts it by backoff-ratio, as does a
+ * latency gradient: when recent first-token latency (short EWMA) exceeds the
+ * long-term average by latency-tolerance, upstream is queueing and more
+ * concurrency would only make it worse. Cuts happen at most once per second
+ * so a burst of failures from one slow period counts once.
+ * Requests over the limit wait in the {@link FairRequestQueue}.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    /**
+     * How a request ended, as far as upstream load is concerned
+     */
+    public enum Outcome {
+        // Answered; its latency feeds the gradient
+        SUCCESS,
+        // Rate limited, server error or timed out
+        OVERLOAD,
+        // Cancelled or failed for a reason unrelated to load
+        IGNORE
+    }
+    
+    private static final double SHORT_ALPHA = 0.3;
+    private static final double LONG_ALPHA = 0.02;
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private double limit;
+    private int minLimit;
+    private int maxLimit;
+    private double backoffRatio;
+    private double latencyTolerance;
+    private int inFlight;
+    
+    // Latency EWMAs in milliseconds (0 = no sample yet)
+    private double shortLatency;
+    private double longLatency;
+    private long lastDecreaseNanos;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+        configure(minLimit, maxLimit, backoffRatio, latencyTolerance);
+    }
+    
+    /**
+     * Apply new bounds, keeping the learned limit where possible
+     */
+    public void configure(int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        lock.lock();
+        try {
+            this.minLimit = Math.max(1, minLimit);
+            this.maxLimit = Math.max(this.minLimit, maxLimit);
+            this.backoffRatio = Math.max(0.1, Math.min(0.95, backoffRatio));
+            this.latencyTolerance = Math.max(1.1, latencyTolerance);
+            this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Take a slot if one is free (release it with {@link #release})
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Give a slot back and adjust the limit
+     * @param latencyMillis time to first token (or to the full response) of a successful request
+     */
+    public void release(Outcome outcome, long latencyMillis) {
+        lock.lock();
+        try {
+            inFlight = Math.max(0, inFlight - 1);
+            
+            if (outcome == Outcome.OVERLOAD) {
+                decrease();
+            } else if (outcome == Outcome.SUCCESS) {
+                recordLatency(latencyMillis);
+                if (shortLatency > longLatency * latencyTolerance) {
+                    decrease();
+                } else {
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private int currentLimit() {
+        return (int) limit;
+    }
+    
+    private void recordLatency(long latencyMillis) {
+        if (shortLatency == 0) {
+            shortLatency = latencyMillis;
+            longLatency = latencyMillis;
+            return;
+        }
+        shortLatency += SHORT_ALPHA * (latencyMillis - shortLatency);
+        longLatency += LONG_ALPHA * (latencyMillis - longLatency);
+    }
+    
+    private void decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < DECREASE_COOLDOWN_NANOS) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
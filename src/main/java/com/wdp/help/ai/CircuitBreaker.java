@@ -0,0 +1,197 @@
+package com.wdp.help.ai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker around the upstream AI endpoint
+ * - CLOSED: requests flow; the outcomes of the last window-size calls are kept
+ *   and, once min-calls are in, a failure rate or slow-call rate at or above
+ *   its threshold opens the circuit
+ * - OPEN: requests fail fast for open-seconds
+ * - HALF_OPEN: a single probe request goes through; an answer in time closes
+ *   the circuit, anything else opens it again
+ */
+public class CircuitBreaker {
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    /**
+     * How a call ended, as far as endpoint health is concerned
+     */
+    public enum Outcome {
+        // Answered
+        SUCCESS,
+        // Connection failure, 5xx or timeout
+        FAILURE,
+        // Cancelled, rate limited or rejected for a reason unrelated to health
+        IGNORE
+    }
+    
+    /**
+     * Told about every state change
+     */
+    public interface Listener {
+        void onStateChange(State from, State to, String reason);
+    }
+    
+    private final Listener listener;
+    
+    private boolean enabled;
+    private int minCalls;
+    private double failureRateThreshold;
+    private long slowCallMillis;
+    private double slowCallRateThreshold;
+    private long openNanos;
+    
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+    
+    // Ring buffer of recent outcomes (CLOSED only)
+    private boolean[] failed = new boolean[0];
+    private boolean[] slow = new boolean[0];
+    private int recorded;
+    private int next;
+    
+    public CircuitBreaker(Listener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Apply new thresholds; the recent outcomes are kept unless the window size changes
+     * @param failureRatePercent open when at least this share of calls failed
+     * @param slowCallRatePercent open when at least this share of calls took longer than slowCallMillis
+     */
+    public synchronized void configure(boolean enabled, int windowSize, int minCalls, double failureRatePercent,
+                                       long slowCallMillis, double slowCallRatePercent, int openSeconds) {
+        this.enabled = enabled;
+        this.minCalls = Math.max(1, Math.min(windowSize, minCalls));
+        this.failureRateThreshold = failureRatePercent / 100.0;
+        this.slowCallMillis = slowCallMillis;
+        this.slowCallRateThreshold = slowCallRatePercent / 100.0;
+        this.openNanos = TimeUnit.SECONDS.toNanos(Math.max(1, openSeconds));
+        
+        if (failed.length != Math.max(1, windowSize)) {
+            failed = new boolean[Math.max(1, windowSize)];
+            slow = new boolean[failed.length];
+            recorded = 0;
+            next = 0;
+        }
+        if (!enabled && state != State.CLOSED) {
+            transition(State.CLOSED, "disabled");
+        }
+    }
+    
+    /**
+     * Whether a new request would be let through now (does not claim the probe)
+     */
+    public synchronized boolean allowsRequests() {
+        switch (state) {
+            case OPEN:
+                return System.nanoTime() - openedAtNanos >= openNanos;
+            case HALF_OPEN:
+                return !probeInFlight;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Claim permission to send a request; every granted call must be followed by {@link #record}
+     * @return false if the circuit is open, or half-open with the probe already out
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            transition(State.HALF_OPEN, "probing after " + TimeUnit.NANOSECONDS.toSeconds(openNanos) + "s");
+        }
+        
+        switch (state) {
+            case OPEN:
+                return false;
+            case HALF_OPEN:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Record the result of a permitted call
+     * @param latencyMillis time to first token (or to the full response)
+     */
+    public synchronized void record(Outcome outcome, long latencyMillis) {
+        boolean isSlow = outcome == Outcome.SUCCESS && slowCallMillis > 0 && latencyMillis >= slowCallMillis;
+        
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            if (outcome == Outcome.SUCCESS && !isSlow) {
+                transition(State.CLOSED, "probe answered in " + latencyMillis + "ms");
+            } else if (outcome != Outcome.IGNORE) {
+                transition(State.OPEN, isSlow ? "probe took " + latencyMillis + "ms" : "probe failed");
+            }
+            return;
+        }
+        if (state == State.OPEN || outcome == Outcome.IGNORE || !enabled) {
+            return;
+        }
+        
+        failed[next] = outcome == Outcome.FAILURE;
+        slow[next] = isSlow;
+        next = (next + 1) % failed.length;
+        recorded = Math.min(failed.length, recorded + 1);
+        if (recorded < minCalls) {
+            return;
+        }
+        
+        double failureRate = rate(failed);
+        double slowRate = rate(slow);
+        if (failureRate >= failureRateThreshold) {
+            transition(State.OPEN, String.format("%.0f%% of the last %d calls failed", failureRate * 100, recorded));
+        } else if (slowRate >= slowCallRateThreshold) {
+            transition(State.OPEN, String.format("%.0f%% of the last %d calls took over %dms", slowRate * 100, recorded, slowCallMillis));
+        }
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    /**
+     * Share of failed calls in the current window (0-1)
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0.0 : rate(failed);
+    }
+    
+    private double rate(boolean[] flags) {
+        int count = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (flags[i]) {
+                count++;
+            }
+        }
+        return (double) count / recorded;
+    }
+    
+    private void transition(State to, String reason) {
+        State from = state;
+        state = to;
+        probeInFlight = false;
+        if (to == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (to == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+        }
+        listener.onStateChange(from, to, reason);
+    }
+}
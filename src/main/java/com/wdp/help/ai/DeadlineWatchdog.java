@@ -0,0 +1,78 @@
+package com.wdp.help.ai;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Aborts requests whose {@link RequestDeadline} ran out
+ * One daemon thread checks every watched request a few times per second and
+ * disconnects the expired ones; the worker's blocked read then fails and it
+ * reports a timeout instead of waiting for the socket. The same thread runs
+ * the hedge timers.
+ */
+public class DeadlineWatchdog {
+    
+    private static final long CHECK_INTERVAL_MILLIS = 200L;
+    
+    private final Map<RequestDeadline, AIRequestHandle> watched = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final BiConsumer<RequestDeadline, String> onExpired;
+    
+    /**
+     * @param onExpired called once per expired request with the exceeded budget (for logging)
+     */
+    public DeadlineWatchdog(BiConsumer<RequestDeadline, String> onExpired) {
+        this.onExpired = onExpired;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "WDP-Help Deadline Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::checkAll, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Start watching a request
+     */
+    public void watch(RequestDeadline deadline, AIRequestHandle handle) {
+        watched.put(deadline, handle);
+    }
+    
+    /**
+     * Stop watching a request (it finished or failed)
+     */
+    public void unwatch(RequestDeadline deadline) {
+        watched.remove(deadline);
+    }
+    
+    /**
+     * Run a short task after a delay (it must not block the watchdog thread)
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return timer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public void shutdown() {
+        timer.shutdownNow();
+        watched.clear();
+    }
+    
+    private void checkAll() {
+        for (Map.Entry<RequestDeadline, AIRequestHandle> entry : watched.entrySet()) {
+            String reason = entry.getKey().check();
+            if (reason != null && watched.remove(entry.getKey()) != null) {
+                entry.getValue().abort();
+                try {
+                    onExpired.accept(entry.getKey(), reason);
+                } catch (RuntimeException e) {
+                    // Never let a callback stop the periodic check
+                }
+            }
+        }
+    }
+}
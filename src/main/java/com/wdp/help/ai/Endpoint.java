@@ -0,0 +1,62 @@
+package com.wdp.help.ai;
+
+import java.util.Objects;
+
+/**
+ * One upstream AI endpoint: an OpenAI-compatible base URL with its key,
+ * model and routing weight (ai.endpoints)
+ */
+public class Endpoint {
+    
+    private final String name;
+    private final String baseUrl;
+    private final String apiKey;
+    private final String model;
+    private final int weight;
+    
+    /**
+     * @param model model for this endpoint, or null to use the one the request asks for
+     */
+    public Endpoint(String name, String baseUrl, String apiKey, String model, int weight) {
+        this.name = name;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.apiKey = apiKey == null ? "" : apiKey;
+        this.model = model == null || model.isEmpty() ? null : model;
+        this.weight = Math.max(1, weight);
+    }
+    
+    /**
+     * Whether requests can be sent: a real key, or a local server that needs none
+     */
+    public boolean isUsable() {
+        if (!apiKey.isEmpty() && !apiKey.equals("YOUR_API_KEY_HERE")) {
+            return true;
+        }
+        return baseUrl.startsWith("http://localhost") || baseUrl.startsWith("http://127.0.0.1");
+    }
+    
+    public String getName() { return name; }
+    public String getBaseUrl() { return baseUrl; }
+    public String getApiKey() { return apiKey; }
+    public String getModel() { return model; }
+    public int getWeight() { return weight; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Endpoint)) return false;
+        Endpoint other = (Endpoint) o;
+        return weight == other.weight && name.equals(other.name) && baseUrl.equals(other.baseUrl)
+                && apiKey.equals(other.apiKey) && Objects.equals(model, other.model);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, baseUrl, apiKey, model, weight);
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
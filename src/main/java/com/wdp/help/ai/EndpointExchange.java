@@ -0,0 +1,338 @@
+package com.wdp.help.ai;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * One question sent to the upstream endpoints
+ * The best endpoint from the {@link EndpointRouter} is tried first. If it
+ * fails before its first token, the next endpoint takes over (failover); if
+ * it is merely slow, a hedge request goes to the next endpoint once the hedge
+ * delay has passed. The first attempt to produce a token wins and the other
+ * is cancelled. Only the winner's callbacks reach the caller.
+ * The transport is pluggable, so the routing can be exercised against stub
+ * servers or without any network at all.
+ */
+class EndpointExchange {
+    
+    /**
+     * Sends one attempt to one endpoint
+     * The attempt handle must get {@link AIRequestHandle#firstToken()} when the
+     * first token (or the whole non-streamed response) arrives.
+     */
+    interface Transport {
+        /**
+         * @param deadline the attempt's own deadline, see {@link RequestDeadline#newAttempt()}
+         * @param attemptIndex 0 for the first attempt, higher for failovers and hedges
+         */
+        void send(Endpoint endpoint, AIRequestHandle attempt, RequestDeadline deadline, int attemptIndex,
+                  Consumer<String> onChunk, Consumer<String> onToolUse,
+                  Consumer<AIService.AIResponse> onComplete, Consumer<String> onError) throws Exception;
+    }
+    
+    /**
+     * Runs the hedge timer
+     */
+    interface Scheduler {
+        ScheduledFuture<?> schedule(Runnable task, long delayMillis);
+    }
+    
+    private final EndpointRouter router;
+    private final Transport transport;
+    private final AIRequestHandle handle;
+    private final RequestDeadline deadline;
+    private final Executor executor;
+    private final Scheduler scheduler;
+    private final ToLongFunction<Endpoint> hedgeDelay;
+    private final boolean background;
+    
+    private Consumer<String> onChunk;
+    private Consumer<String> onToolUse;
+    private Consumer<AIService.AIResponse> onComplete;
+    private Consumer<String> onError;
+    
+    // Guarded by this
+    private final Set<Endpoint> tried = new HashSet<>();
+    private final List<Attempt> active = new ArrayList<>();
+    private Attempt winner;
+    private Attempt lastFailed;
+    private int chains;
+    private int attempts;
+    private boolean done;
+    private ScheduledFuture<?> hedgeTimer;
+    
+    /**
+     * @param executor runs hedge attempts
+     * @param hedgeDelay hedge delay for a primary endpoint in millis (0 = no hedging)
+     * @param background never probe a half-open endpoint and never hedge (cache warm-up)
+     */
+    EndpointExchange(EndpointRouter router, Transport transport, AIRequestHandle handle, RequestDeadline deadline,
+                     Executor executor, Scheduler scheduler, ToLongFunction<Endpoint> hedgeDelay, boolean background) {
+        this.router = router;
+        this.transport = transport;
+        this.handle = handle;
+        this.deadline = deadline;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.hedgeDelay = hedgeDelay;
+        this.background = background;
+    }
+    
+    /**
+     * Send the question and block until every attempt has ended
+     * @throws Exception the failure of the last attempt if none answered and it failed with an exception
+     */
+    void run(Consumer<String> onChunk, Consumer<String> onToolUse,
+             Consumer<AIService.AIResponse> onComplete, Consumer<String> onError) throws Exception {
+        this.onChunk = onChunk;
+        this.onToolUse = onToolUse;
+        this.onComplete = onComplete;
+        this.onError = onError;
+        
+        Attempt first;
+        synchronized (this) {
+            first = startAttempt(true);
+            if (first != null) {
+                chains = 1;
+            }
+        }
+        if (first == null) {
+            onError.accept("error.service-unavailable");
+            return;
+        }
+        
+        long delay = background ? 0L : hedgeDelay.applyAsLong(first.endpoint);
+        if (delay > 0 && delay < deadline.getRemainingMillis()) {
+            ScheduledFuture<?> timer = scheduler.schedule(this::hedge, delay);
+            synchronized (this) {
+                hedgeTimer = timer;
+            }
+        }
+        
+        runChain(first);
+        
+        Attempt failure;
+        synchronized (this) {
+            while (chains > 0) {
+                wait();
+            }
+            done = true;
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+            }
+            failure = winner != null ? winner : lastFailed;
+        }
+        
+        // The winner's errors were passed on already; otherwise report why nobody answered
+        if (failure == null || failure.answered) {
+            return;
+        }
+        if (failure.exception != null) {
+            throw failure.exception;
+        }
+        if (failure != winner && failure.error != null) {
+            onError.accept(failure.error);
+        }
+    }
+    
+    /**
+     * Run an attempt, then fail over to the next endpoint for as long as needed
+     */
+    private void runChain(Attempt attempt) {
+        try {
+            while (attempt != null) {
+                execute(attempt);
+                attempt = failover(attempt);
+            }
+        } finally {
+            synchronized (this) {
+                chains--;
+                notifyAll();
+            }
+        }
+    }
+    
+    private void execute(Attempt attempt) {
+        attempt.startNanos = System.nanoTime();
+        try {
+            transport.send(attempt.endpoint, attempt.handle, attempt.deadline, attempt.index,
+                    chunk -> {
+                        if (isWinner(attempt)) {
+                            onChunk.accept(chunk);
+                        }
+                    },
+                    tool -> {
+                        if (isWinner(attempt)) {
+                            onToolUse.accept(tool);
+                        }
+                    },
+                    response -> {
+                        attempt.answered = true;
+                        onFirstToken(attempt);
+                        if (isWinner(attempt)) {
+                            onComplete.accept(response);
+                        }
+                    },
+                    error -> {
+                        attempt.error = error;
+                        if (isWinner(attempt)) {
+                            onError.accept(error);
+                        }
+                    });
+        } catch (Exception e) {
+            attempt.exception = e;
+        }
+        
+        if (isOvertaken(attempt)) {
+            router.recordOvertaken(attempt.endpoint, attempt.latencyMillis());
+        } else {
+            router.record(attempt.endpoint, healthOf(attempt), attempt.latencyMillis());
+        }
+        synchronized (this) {
+            active.remove(attempt);
+            if (!attempt.answered && !attempt.handle.isCancelled()) {
+                lastFailed = attempt;
+            }
+        }
+    }
+    
+    /**
+     * Pick the next endpoint after an attempt failed before its first token
+     * @return the next attempt, or null if it answered, someone else is still trying or nothing is left
+     */
+    private synchronized Attempt failover(Attempt failed) {
+        if (failed.answered || winner != null || done || !active.isEmpty()
+                || handle.isCancelled() || deadline.getExpiredReason() != null) {
+            return null;
+        }
+        return startAttempt(true);
+    }
+    
+    /**
+     * Hedge timer: no token yet from the only running attempt, send a backup to another endpoint
+     */
+    private void hedge() {
+        Attempt hedge;
+        synchronized (this) {
+            if (winner != null || done || handle.isCancelled() || active.size() != 1) {
+                return;
+            }
+            hedge = startAttempt(false);
+            if (hedge == null) {
+                return;
+            }
+            chains++;
+        }
+        
+        try {
+            executor.execute(() -> runChain(hedge));
+        } catch (RejectedExecutionException e) {
+            router.record(hedge.endpoint, CircuitBreaker.Outcome.IGNORE, 0L);
+            synchronized (this) {
+                active.remove(hedge);
+                chains--;
+                notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * First token of an attempt: the first one wins, the others are cancelled
+     */
+    private void onFirstToken(Attempt attempt) {
+        List<Attempt> losers;
+        synchronized (this) {
+            if (attempt.firstTokenNanos == 0L) {
+                attempt.firstTokenNanos = System.nanoTime();
+            }
+            if (winner != null) {
+                return;
+            }
+            winner = attempt;
+            losers = new ArrayList<>(active);
+            losers.remove(attempt);
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+            }
+        }
+        for (Attempt loser : losers) {
+            loser.handle.cancel();
+        }
+    }
+    
+    private synchronized boolean isWinner(Attempt attempt) {
+        return winner == attempt;
+    }
+    
+    /**
+     * Cancelled without a token because another attempt answered first
+     */
+    private synchronized boolean isOvertaken(Attempt attempt) {
+        return winner != null && winner != attempt && attempt.firstTokenNanos == 0L && !handle.isCancelled();
+    }
+    
+    /**
+     * Claim the next endpoint (caller holds the lock)
+     */
+    private Attempt startAttempt(boolean allowProbe) {
+        Endpoint endpoint = router.acquire(tried, allowProbe && !background);
+        if (endpoint == null) {
+            return null;
+        }
+        tried.add(endpoint);
+        Attempt attempt = new Attempt(endpoint, handle.newAttempt(), deadline.newAttempt(), attempts++);
+        attempt.handle.onFirstToken(() -> onFirstToken(attempt));
+        active.add(attempt);
+        return attempt;
+    }
+    
+    /**
+     * Classify an attempt for the endpoint's circuit breaker
+     */
+    private CircuitBreaker.Outcome healthOf(Attempt attempt) {
+        if (attempt.handle.isCancelled()) {
+            return CircuitBreaker.Outcome.IGNORE;
+        }
+        if (attempt.deadline.getExpiredReason() != null || attempt.handle.getStatus() >= 500 || attempt.exception != null) {
+            return CircuitBreaker.Outcome.FAILURE;
+        }
+        return attempt.answered ? CircuitBreaker.Outcome.SUCCESS : CircuitBreaker.Outcome.IGNORE;
+    }
+    
+    /**
+     * One request to one endpoint
+     */
+    private static final class Attempt {
+        private final Endpoint endpoint;
+        private final AIRequestHandle handle;
+        private final RequestDeadline deadline;
+        private final int index;
+        private volatile long startNanos;
+        private volatile long firstTokenNanos;
+        private volatile boolean answered;
+        private volatile String error;
+        private volatile Exception exception;
+        
+        private Attempt(Endpoint endpoint, AIRequestHandle handle, RequestDeadline deadline, int index) {
+            this.endpoint = endpoint;
+            this.handle = handle;
+            this.deadline = deadline;
+            this.index = index;
+        }
+        
+        /**
+         * Time to first token, or to the end of the attempt if none arrived
+         */
+        private long latencyMillis() {
+            long end = firstTokenNanos != 0L ? firstTokenNanos : System.nanoTime();
+            return (end - startNanos) / 1_000_000L;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.wdp.help.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the upstream endpoint for each request
+ * Every endpoint has its own circuit breaker and first-token latency stats:
+ * an EWMA for routing and the most recent samples for the hedge delay
+ * percentile. Requests go to the healthy endpoint with the lowest EWMA
+ * latency divided by its weight; endpoints without samples go first so
+ * every endpoint gets measured.
+ */
+public class EndpointRouter {
+    
+    // Samples needed before the hedge delay follows the measured percentile
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final int LATENCY_SAMPLES = 100;
+    private static final double LATENCY_ALPHA = 0.2;
+    
+    /**
+     * Told about every circuit breaker state change
+     */
+    public interface Listener {
+        void onStateChange(Endpoint endpoint, CircuitBreaker.State from, CircuitBreaker.State to, String reason);
+    }
+    
+    private final Listener listener;
+    private volatile List<Route> routes = Collections.emptyList();
+    
+    public EndpointRouter(Listener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Apply the endpoint list and breaker settings
+     * Unchanged endpoints keep their health and latency history.
+     */
+    public synchronized void configure(List<Endpoint> endpoints, boolean breakerEnabled, int windowSize, int minCalls,
+                                       double failureRatePercent, long slowCallMillis, double slowCallRatePercent, int openSeconds) {
+        List<Route> updated = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Route route = find(endpoint);
+            if (route == null) {
+                route = new Route(endpoint, new CircuitBreaker((from, to, reason) -> listener.onStateChange(endpoint, from, to, reason)));
+            }
+            route.breaker.configure(breakerEnabled, windowSize, minCalls, failureRatePercent, slowCallMillis, slowCallRatePercent, openSeconds);
+            updated.add(route);
+        }
+        routes = Collections.unmodifiableList(updated);
+    }
+    
+    /**
+     * Claim the best endpoint not tried yet
+     * @param allowProbe also use an endpoint whose circuit is half-open (as its probe)
+     * @return the endpoint, its breaker permission taken (report with {@link #record}), or null if none is available
+     */
+    public Endpoint acquire(Collection<Endpoint> exclude, boolean allowProbe) {
+        // Score once up front, samples may arrive while sorting
+        List<Route> candidates = new ArrayList<>(routes);
+        Map<Route, Double> scores = new HashMap<>();
+        for (Route route : candidates) {
+            scores.put(route, route.score());
+        }
+        candidates.sort(Comparator.comparingDouble(scores::get));
+        for (Route route : candidates) {
+            if (exclude.contains(route.endpoint) || !route.endpoint.isUsable()) {
+                continue;
+            }
+            if (!allowProbe && route.breaker.getState() != CircuitBreaker.State.CLOSED) {
+                continue;
+            }
+            if (route.breaker.tryAcquirePermission()) {
+                return route.endpoint;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Report how a call to an acquired endpoint ended
+     * @param latencyMillis time to first token of a successful call
+     */
+    public void record(Endpoint endpoint, CircuitBreaker.Outcome outcome, long latencyMillis) {
+        Route route = find(endpoint);
+        if (route == null) {
+            return; // Removed by a reload while the call ran
+        }
+        route.breaker.record(outcome, latencyMillis);
+        if (outcome == CircuitBreaker.Outcome.SUCCESS) {
+            route.addSample(latencyMillis);
+        }
+    }
+    
+    /**
+     * A hedge answered first and this endpoint's attempt was cancelled; its latency
+     * was at least the time it ran, so that counts as a sample (otherwise a slow
+     * endpoint that always loses would never look slow)
+     */
+    public void recordOvertaken(Endpoint endpoint, long elapsedMillis) {
+        Route route = find(endpoint);
+        if (route == null) {
+            return;
+        }
+        route.breaker.record(CircuitBreaker.Outcome.IGNORE, 0L);
+        route.addSample(elapsedMillis);
+    }
+    
+    /**
+     * Whether any endpoint would take a request now
+     */
+    public boolean allowsRequests() {
+        for (Route route : routes) {
+            if (route.endpoint.isUsable() && route.breaker.allowsRequests()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Whether any endpoint is fully healthy (closed circuit)
+     */
+    public boolean isHealthy() {
+        for (Route route : routes) {
+            if (route.endpoint.isUsable() && route.breaker.getState() == CircuitBreaker.State.CLOSED) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * How long to wait for a first token from an endpoint before hedging
+     * @param percentile e.g. 0.95
+     * @param defaultMillis used until the endpoint has enough samples
+     */
+    public long getHedgeDelayMillis(Endpoint endpoint, double percentile, long defaultMillis, long minMillis) {
+        Route route = find(endpoint);
+        long measured = route == null ? -1L : route.percentile(percentile, MIN_HEDGE_SAMPLES);
+        return Math.max(minMillis, measured < 0 ? defaultMillis : measured);
+    }
+    
+    public List<Route> getRoutes() {
+        return routes;
+    }
+    
+    private Route find(Endpoint endpoint) {
+        for (Route route : routes) {
+            if (route.endpoint.equals(endpoint)) {
+                return route;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * An endpoint with its breaker and latency history
+     */
+    public static final class Route {
+        private final Endpoint endpoint;
+        private final CircuitBreaker breaker;
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int sampleCount;
+        private int nextSample;
+        private double ewmaLatency;
+        
+        private Route(Endpoint endpoint, CircuitBreaker breaker) {
+            this.endpoint = endpoint;
+            this.breaker = breaker;
+        }
+        
+        private synchronized void addSample(long latencyMillis) {
+            samples[nextSample] = latencyMillis;
+            nextSample = (nextSample + 1) % samples.length;
+            sampleCount = Math.min(samples.length, sampleCount + 1);
+            ewmaLatency = ewmaLatency == 0 ? latencyMillis : ewmaLatency + LATENCY_ALPHA * (latencyMillis - ewmaLatency);
+        }
+        
+        private synchronized double score() {
+            return ewmaLatency / endpoint.getWeight();
+        }
+        
+        /**
+         * @return the latency percentile in millis, or -1 with fewer than minSamples samples
+         */
+        private synchronized long percentile(double percentile, int minSamples) {
+            if (sampleCount < minSamples) {
+                return -1L;
+            }
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sampleCount) - 1;
+            return sorted[Math.max(0, Math.min(sampleCount - 1, index))];
+        }
+        
+        public Endpoint getEndpoint() { return endpoint; }
+        public CircuitBreaker getBreaker() { return breaker; }
+        
+        public synchronized long getEwmaLatencyMillis() {
+            return (long) ewmaLatency;
+        }
+        
+        /**
+         * @return the 95th percentile first-token latency, or -1 without enough samples
+         */
+        public long getP95LatencyMillis() {
+            return percentile(0.95, MIN_HEDGE_SAMPLES);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.wdp.help.ai;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Dispatch queue for player AI requests
+ * Requests wait here until the concurrency limiter has a free slot. Higher
+ * priority tiers always go first; within a priority, players are served by
+ * deficit round-robin. A request costs 1 plus its player's recent usage
+ * (dispatched questions, halving every usage half-life) and each round grants
+ * a player its tier weight, so someone asking back to back waits a few rounds
+ * while newcomers are served first.
+ * A dispatched request that has to wait for a rate limit is put back with a
+ * not-before time instead of holding its slot; until then it is skipped.
+ */
+public class FairRequestQueue {
+    
+    // Per priority (highest first), the players with waiting requests in round-robin order
+    private final TreeMap<Integer, LinkedHashMap<UUID, Flow>> rings = new TreeMap<>(Collections.reverseOrder());
+    
+    // Decaying usage per player: {value, last update in nanos}
+    private final Map<UUID, double[]> usage = new HashMap<>();
+    
+    private int capacity;
+    private long halfLifeNanos;
+    private int size;
+    
+    public FairRequestQueue(int capacity, int usageHalfLifeMinutes) {
+        configure(capacity, usageHalfLifeMinutes);
+    }
+    
+    /**
+     * Apply new limits; requests already waiting stay queued
+     * @param usageHalfLifeMinutes 0 disables the usage penalty (plain round-robin)
+     */
+    public synchronized void configure(int capacity, int usageHalfLifeMinutes) {
+        this.capacity = Math.max(1, capacity);
+        this.halfLifeNanos = Math.max(0, usageHalfLifeMinutes) * 60_000_000_000L;
+    }
+    
+    /**
+     * Queue a request
+     * @return false if the queue is full
+     */
+    public synchronized boolean offer(Entry entry) {
+        if (size >= capacity) {
+            return false;
+        }
+        
+        entry.cost = 1.0 + usageOf(entry.player, System.nanoTime());
+        Flow flow = rings.computeIfAbsent(entry.tier.getPriority(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(entry.player, Flow::new);
+        flow.weight = entry.tier.getWeight();
+        flow.entries.addLast(entry);
+        size++;
+        return true;
+    }
+    
+    /**
+     * Put a dispatched request back until it may be sent (e.g. after a rate limit wait)
+     * It keeps its place at the front of its player's requests, is not charged again
+     * and may exceed the capacity, having been admitted already.
+     */
+    public synchronized void requeue(Entry entry, long notBeforeNanos) {
+        entry.cost = 0.0;
+        entry.requeued = true;
+        entry.notBeforeNanos = notBeforeNanos;
+        rings.computeIfAbsent(entry.tier.getPriority(), k -> new LinkedHashMap<>())
+                .computeIfAbsent(entry.player, Flow::new).entries.addFirst(entry);
+        size++;
+    }
+    
+    /**
+     * Take the next request that may be sent now, if the admission check passes
+     * @param admit called only when such a request is waiting (e.g. to take a limiter slot)
+     */
+    public synchronized Entry poll(BooleanSupplier admit) {
+        long now = System.nanoTime();
+        Predicate<Entry> ready = entry -> entry.isReady(now);
+        if (!hasReady(ready) || !admit.getAsBoolean()) {
+            return null;
+        }
+        
+        Entry entry = next(rings, ready);
+        size--;
+        if (!entry.requeued) {
+            recordUsage(entry.player, now);
+        }
+        return entry;
+    }
+    
+    /**
+     * Drop the waiting request of a handle
+     * @return true if it was still queued
+     */
+    public synchronized boolean remove(AIRequestHandle handle) {
+        for (Iterator<LinkedHashMap<UUID, Flow>> ringIterator = rings.values().iterator(); ringIterator.hasNext(); ) {
+            LinkedHashMap<UUID, Flow> ring = ringIterator.next();
+            for (Iterator<Flow> flowIterator = ring.values().iterator(); flowIterator.hasNext(); ) {
+                Flow flow = flowIterator.next();
+                if (flow.entries.removeIf(entry -> entry.handle == handle)) {
+                    size--;
+                    if (flow.entries.isEmpty()) {
+                        flowIterator.remove();
+                    }
+                    if (ring.isEmpty()) {
+                        ringIterator.remove();
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Tell every waiting request its position, i.e. the order it would be dispatched in
+     */
+    public void publishPositions() {
+        List<Entry> order = new ArrayList<>();
+        synchronized (this) {
+            // Replay the round-robin on a copy; the queue is small (thread.queue-size)
+            TreeMap<Integer, LinkedHashMap<UUID, Flow>> copy = new TreeMap<>(Collections.reverseOrder());
+            for (Map.Entry<Integer, LinkedHashMap<UUID, Flow>> ring : rings.entrySet()) {
+                LinkedHashMap<UUID, Flow> flows = new LinkedHashMap<>();
+                for (Flow flow : ring.getValue().values()) {
+                    flows.put(flow.player, flow.copy());
+                }
+                copy.put(ring.getKey(), flows);
+            }
+            // Requests waiting out a rate limit are counted as if they were ready
+            for (int i = 0; i < size; i++) {
+                order.add(next(copy, entry -> true));
+            }
+        }
+        
+        for (int i = 0; i < order.size(); i++) {
+            order.get(i).handle.setQueuePosition(i + 1);
+        }
+    }
+    
+    private boolean hasReady(Predicate<Entry> ready) {
+        for (LinkedHashMap<UUID, Flow> ring : rings.values()) {
+            if (hasReady(ring, ready)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean hasReady(LinkedHashMap<UUID, Flow> ring, Predicate<Entry> ready) {
+        for (Flow flow : ring.values()) {
+            if (ready.test(flow.entries.peekFirst())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Deficit round-robin step over the highest priority with a ready request
+     * The player at the front is served while its deficit covers the cost of its
+     * next request; otherwise it earns its weight and moves to the back. A player
+     * whose next request is not ready yet moves to the back without earning.
+     * @return the request, or null if none is ready
+     */
+    private static Entry next(TreeMap<Integer, LinkedHashMap<UUID, Flow>> rings, Predicate<Entry> ready) {
+        for (Map.Entry<Integer, LinkedHashMap<UUID, Flow>> top : rings.entrySet()) {
+            LinkedHashMap<UUID, Flow> ring = top.getValue();
+            if (!hasReady(ring, ready)) {
+                continue;
+            }
+            
+            while (true) {
+                Flow flow = ring.values().iterator().next();
+                Entry head = flow.entries.peekFirst();
+                if (!ready.test(head) || flow.deficit < head.cost) {
+                    if (ready.test(head)) {
+                        flow.deficit += flow.weight;
+                    }
+                    ring.remove(flow.player);
+                    ring.put(flow.player, flow);
+                    continue;
+                }
+                
+                flow.deficit -= head.cost;
+                flow.entries.pollFirst();
+                
+                // An idle player keeps no credit
+                if (flow.entries.isEmpty()) {
+                    ring.remove(flow.player);
+                    if (ring.isEmpty()) {
+                        rings.remove(top.getKey());
+                    }
+                }
+                return head;
+            }
+        }
+        return null;
+    }
+    
+    private double usageOf(UUID player, long now) {
+        double[] state = usage.get(player);
+        if (state == null || halfLifeNanos == 0) {
+            return 0.0;
+        }
+        return state[0] * Math.pow(0.5, (now - (long) state[1]) / (double) halfLifeNanos);
+    }
+    
+    private void recordUsage(UUID player, long now) {
+        if (halfLifeNanos == 0) {
+            return;
+        }
+        usage.put(player, new double[]{usageOf(player, now) + 1.0, now});
+        
+        // Forget players whose usage has decayed away
+        if (usage.size() > capacity * 4) {
+            usage.keySet().removeIf(uuid -> usageOf(uuid, now) < 0.05);
+        }
+    }
+    
+    /**
+     * A request waiting for dispatch
+     */
+    public static final class Entry {
+        private final UUID player;
+        private final PriorityTier tier;
+        private final AIRequestHandle handle;
+        private final Runnable task;
+        private final Runnable onRejected;
+        private double cost;
+        private boolean requeued;
+        private long notBeforeNanos;
+        
+        /**
+         * @param task runs on a worker once dispatched
+         * @param onRejected runs instead if the request can never be dispatched
+         */
+        public Entry(UUID player, PriorityTier tier, AIRequestHandle handle, Runnable task, Runnable onRejected) {
+            this.player = player;
+            this.tier = tier;
+            this.handle = handle;
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+        
+        private boolean isReady(long now) {
+            return !requeued || now - notBeforeNanos >= 0;
+        }
+        
+        public AIRequestHandle getHandle() { return handle; }
+        public Runnable getTask() { return task; }
+        
+        public void reject() {
+            onRejected.run();
+        }
+    }
+    
+    /**
+     * One player's waiting requests at one priority
+     */
+    private static final class Flow {
+        private final UUID player;
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private double deficit;
+        private int weight;
+        
+        private Flow(UUID player) {
+            this.player = player;
+        }
+        
+        private Flow copy() {
+            Flow copy = new Flow(player);
+            copy.entries.addAll(entries);
+            copy.deficit = deficit;
+            copy.weight = weight;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wdp.help.ai;
+
+/**
+ * Request queue tier granted by a permission
+ * Higher priorities are always dispatched first; the weight is the share a
+ * player gets per deficit round-robin round among players of equal priority.
+ */
+public class PriorityTier {
+    
+    // Players without any tier permission
+    public static final PriorityTier DEFAULT = new PriorityTier("default", null, 0, 1);
+    
+    private final String name;
+    private final String permission;
+    private final int priority;
+    private final int weight;
+    
+    public PriorityTier(String name, String permission, int priority, int weight) {
+        this.name = name;
+        this.permission = permission;
+        this.priority = priority;
+        this.weight = Math.max(1, weight);
+    }
+    
+    public String getName() { return name; }
+    public String getPermission() { return permission; }
+    public int getPriority() { return priority; }
+    public int getWeight() { return weight; }
+}
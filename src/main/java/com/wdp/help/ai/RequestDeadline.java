@@ -0,0 +1,203 @@
+package com.wdp.help.ai;
+
+import com.wdp.help.config.ConfigManager;
+
+/**
+ * Time budgets for one question, shared by all HTTP requests it makes
+ * - connect: opening each connection
+ * - first token: from sending each request to its first streamed delta
+ * - idle: longest gap between deltas once streaming
+ * - total: the whole question, including tool-call follow-ups
+ * Socket timeouts only cover connect and the remaining total; the phase
+ * budgets are enforced by {@link DeadlineWatchdog}, which aborts the
+ * connection, so a response trickling in byte by byte still times out.
+ * Each endpoint attempt (failover, hedge) gets its own deadline from
+ * {@link #newAttempt()}: its own phases, the question's total budget.
+ */
+public class RequestDeadline {
+    
+    private final long startNanos;
+    private final long connectNanos;
+    private final long firstTokenNanos;
+    private final long idleNanos;
+    private final long totalNanos;
+    
+    // The question this is an attempt of (null for the question itself)
+    private final RequestDeadline question;
+    
+    // Start of the current HTTP request (0 = none), and its first/last delta (0 = none yet)
+    private volatile long requestStartNanos;
+    private volatile long firstTokenAtNanos;
+    private volatile long lastChunkAtNanos;
+    private volatile String expiredReason;
+    
+    // Question only: the attempt that streamed first, and whether any attempt ran out of time
+    private volatile RequestDeadline firstAnswered;
+    private volatile boolean attemptExpired;
+    
+    public RequestDeadline(long connectMillis, long firstTokenMillis, long idleMillis, long totalMillis) {
+        this.startNanos = System.nanoTime();
+        this.connectNanos = connectMillis * 1_000_000L;
+        this.firstTokenNanos = firstTokenMillis * 1_000_000L;
+        this.idleNanos = idleMillis * 1_000_000L;
+        this.totalNanos = totalMillis * 1_000_000L;
+        this.question = null;
+    }
+    
+    private RequestDeadline(RequestDeadline question) {
+        this.startNanos = question.startNanos;
+        this.connectNanos = question.connectNanos;
+        this.firstTokenNanos = question.firstTokenNanos;
+        this.idleNanos = question.idleNanos;
+        this.totalNanos = question.totalNanos;
+        this.question = question;
+        this.requestStartNanos = System.nanoTime();
+    }
+    
+    /**
+     * Budgets from config; without streaming there are no deltas, so only connect and total apply
+     */
+    public static RequestDeadline fromConfig(ConfigManager config) {
+        long total = config.getTimeout() * 1000L;
+        if (!config.isStreamEnabled()) {
+            return new RequestDeadline(config.getConnectTimeoutMillis(), total, total, total);
+        }
+        return new RequestDeadline(config.getConnectTimeoutMillis(), config.getFirstTokenTimeoutMillis(),
+                config.getIdleTimeoutMillis(), total);
+    }
+    
+    /**
+     * Deadline for one endpoint attempt of this question
+     * Its connect, first-token and idle budgets start over, so a hedge starting
+     * late does not reset the primary's; the total budget stays the question's.
+     * Watch it with the attempt's handle, the question's only covers the total.
+     */
+    public RequestDeadline newAttempt() {
+        return new RequestDeadline(this);
+    }
+    
+    /**
+     * A new HTTP request starts (first one or a tool-call follow-up)
+     */
+    public void onRequestStart() {
+        requestStartNanos = System.nanoTime();
+        firstTokenAtNanos = 0L;
+        lastChunkAtNanos = 0L;
+    }
+    
+    /**
+     * A delta (content or tool call) arrived
+     */
+    public void onChunk() {
+        long now = System.nanoTime();
+        if (firstTokenAtNanos == 0L) {
+            firstTokenAtNanos = now;
+            if (question != null && question.firstAnswered == null) {
+                question.firstAnswered = this;
+            }
+        }
+        lastChunkAtNanos = now;
+    }
+    
+    /**
+     * Check the budgets, remembering the first one exceeded
+     * An attempt checks its phases only, the question checks the total
+     * (and the phases of a request it sent itself).
+     * @return the exceeded budget ("first-token", "idle", "total"), or null
+     */
+    public String check() {
+        if (expiredReason != null) {
+            return expiredReason;
+        }
+        
+        long now = System.nanoTime();
+        long requestStart = requestStartNanos;
+        String reason = null;
+        if (question == null && now - startNanos > totalNanos) {
+            reason = "total";
+        } else if (requestStart != 0L && firstTokenAtNanos == 0L && now - requestStart > firstTokenNanos) {
+            reason = "first-token";
+        } else if (lastChunkAtNanos != 0L && now - lastChunkAtNanos > idleNanos) {
+            reason = "idle";
+        }
+        
+        if (reason != null) {
+            expiredReason = reason;
+            if (question != null) {
+                question.attemptExpired = true;
+            }
+        }
+        return reason;
+    }
+    
+    /**
+     * Whether this request, or the question it belongs to, ran out of time
+     */
+    public boolean isExpired() {
+        return check() != null || (question != null && question.isExpired());
+    }
+    
+    /**
+     * The budget this request (or the question it belongs to) exceeded, or null
+     */
+    public String getExpiredReason() {
+        String reason = expiredReason;
+        if (reason == null && question != null) {
+            return question.getExpiredReason();
+        }
+        return reason;
+    }
+    
+    /**
+     * Whether the question or any of its attempts ran out of time
+     */
+    public boolean hasTimedOut() {
+        return expiredReason != null || attemptExpired;
+    }
+    
+    /**
+     * Connect timeout for the next connection (never past the total budget)
+     */
+    public int getConnectTimeoutMillis() {
+        return (int) Math.max(1L, Math.min(connectNanos, remainingNanos()) / 1_000_000L);
+    }
+    
+    /**
+     * Socket read timeout for the next connection: whatever is left of the total budget
+     */
+    public int getReadTimeoutMillis() {
+        return (int) Math.max(1L, remainingNanos() / 1_000_000L);
+    }
+    
+    /**
+     * Time from the start of the latest HTTP request to its first delta,
+     * or the total elapsed time if no delta arrived (non-streaming)
+     * For a question, that of the attempt that streamed first.
+     */
+    public long getFirstTokenLatencyMillis() {
+        RequestDeadline answered = firstAnswered;
+        if (answered != null) {
+            return answered.getFirstTokenLatencyMillis();
+        }
+        long firstToken = firstTokenAtNanos;
+        if (firstToken == 0L) {
+            return getElapsedMillis();
+        }
+        return (firstToken - requestStartNanos) / 1_000_000L;
+    }
+    
+    /**
+     * What is left of the total budget
+     */
+    public long getRemainingMillis() {
+        return Math.max(0L, remainingNanos() / 1_000_000L);
+    }
+    
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+    
+    private long remainingNanos() {
+        return totalNanos - (System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,283 @@
+package com.wdp.help.ai;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side rate limits for upstream AI requests
+ * Global token buckets for requests and tokens per minute, a requests per
+ * minute bucket per player, and a global pause set from Retry-After and
+ * x-ratelimit-* response headers. A reservation may run the buckets into
+ * debt: the caller waits the returned time instead of failing, as long as
+ * that fits its budget.
+ */
+public class UpstreamRateLimiter {
+    
+    // Pause after a 429 that did not say how long to wait
+    private static final long DEFAULT_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    // Ignore header values asking for absurd pauses
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    // Player buckets kept before full (idle) ones are dropped
+    private static final int MAX_IDLE_PLAYERS = 256;
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+    
+    private TokenBucket requests;
+    private TokenBucket tokens;
+    private int playerRequestsPerMinute;
+    private final Map<UUID, TokenBucket> players = new HashMap<>();
+    private long pausedUntilNanos;
+    
+    public UpstreamRateLimiter(int requestsPerMinute, int tokensPerMinute, int playerRequestsPerMinute) {
+        configure(requestsPerMinute, tokensPerMinute, playerRequestsPerMinute);
+    }
+    
+    /**
+     * Apply new limits (0 = unlimited); buckets start full again
+     */
+    public synchronized void configure(int requestsPerMinute, int tokensPerMinute, int playerRequestsPerMinute) {
+        this.requests = new TokenBucket(requestsPerMinute);
+        this.tokens = new TokenBucket(tokensPerMinute);
+        this.playerRequestsPerMinute = playerRequestsPerMinute;
+        players.clear();
+    }
+    
+    /**
+     * Reserve one request and its tokens
+     * @param player the asking player, or null for background work
+     * @param maxWaitNanos longest acceptable wait
+     * @return nanos to wait before sending, or -1 if that would exceed maxWaitNanos (nothing is reserved then)
+     */
+    public synchronized long reserve(UUID player, int tokenCount, long maxWaitNanos) {
+        long now = System.nanoTime();
+        TokenBucket playerBucket = player == null ? null : playerBucket(player, now);
+        
+        long wait = Math.max(0L, pausedUntilNanos - now);
+        wait = Math.max(wait, requests.waitNanos(1, now));
+        wait = Math.max(wait, tokens.waitNanos(tokenCount, now));
+        if (playerBucket != null) {
+            wait = Math.max(wait, playerBucket.waitNanos(1, now));
+        }
+        if (wait > maxWaitNanos) {
+            return -1L;
+        }
+        
+        requests.take(1);
+        tokens.take(tokenCount);
+        if (playerBucket != null) {
+            playerBucket.take(1);
+        }
+        return wait;
+    }
+    
+    /**
+     * Give back a reservation that was never used (the request was cancelled while waiting)
+     */
+    public synchronized void refund(UUID player, int tokenCount) {
+        requests.give(1);
+        tokens.give(tokenCount);
+        TokenBucket playerBucket = player == null ? null : players.get(player);
+        if (playerBucket != null) {
+            playerBucket.give(1);
+        }
+    }
+    
+    /**
+     * Count a request that is sent regardless (a tool-call follow-up of a running question)
+     */
+    public synchronized void charge(int tokenCount) {
+        long now = System.nanoTime();
+        requests.refill(now);
+        tokens.refill(now);
+        requests.take(1);
+        tokens.take(tokenCount);
+    }
+    
+    /**
+     * How long the player's own bucket would make the next question wait
+     */
+    public synchronized long getPlayerWaitNanos(UUID player) {
+        long now = System.nanoTime();
+        return playerBucket(player, now).waitNanos(1, now);
+    }
+    
+    /**
+     * Time left of a pause requested by upstream (0 = not paused)
+     */
+    public synchronized long getPauseRemainingNanos() {
+        return Math.max(0L, pausedUntilNanos - System.nanoTime());
+    }
+    
+    /**
+     * Read rate limit headers of a response and pause all requests if upstream asks for it
+     * @param headers header lookup by name (case-insensitive)
+     * @return the new pause in nanos if this response started or extended one, else 0
+     */
+    public long onResponse(int status, Function<String, String> headers) {
+        long nowMillis = System.currentTimeMillis();
+        long pause = parseDelayNanos(headers.apply("Retry-After"), nowMillis);
+        
+        // OpenAI style: separate request and token windows
+        if ("0".equals(trim(headers.apply("x-ratelimit-remaining-requests")))) {
+            pause = Math.max(pause, parseDelayNanos(headers.apply("x-ratelimit-reset-requests"), nowMillis));
+        }
+        if ("0".equals(trim(headers.apply("x-ratelimit-remaining-tokens")))) {
+            pause = Math.max(pause, parseDelayNanos(headers.apply("x-ratelimit-reset-tokens"), nowMillis));
+        }
+        // OpenRouter style: one window, reset as epoch millis
+        if ("0".equals(trim(headers.apply("x-ratelimit-remaining")))) {
+            pause = Math.max(pause, parseDelayNanos(headers.apply("x-ratelimit-reset"), nowMillis));
+        }
+        
+        if (status == 429 && pause == 0) {
+            pause = DEFAULT_PAUSE_NANOS;
+        }
+        if (pause == 0) {
+            return 0L;
+        }
+        
+        pause = Math.min(pause, MAX_PAUSE_NANOS);
+        synchronized (this) {
+            long until = System.nanoTime() + pause;
+            if (until <= pausedUntilNanos) {
+                return 0L;
+            }
+            pausedUntilNanos = until;
+            return pause;
+        }
+    }
+    
+    /**
+     * Parse a delay header: seconds ("20"), an HTTP date, a duration ("1m30s", "250ms")
+     * or an epoch timestamp in seconds or millis
+     * @return the delay in nanos, 0 if absent, unparseable or already passed
+     */
+    static long parseDelayNanos(String value, long nowMillis) {
+        value = trim(value);
+        if (value == null || value.isEmpty()) {
+            return 0L;
+        }
+        
+        long millis;
+        try {
+            double number = Double.parseDouble(value);
+            if (number > 1e12) {
+                millis = (long) number - nowMillis;
+            } else if (number > 1e9) {
+                millis = (long) (number * 1000) - nowMillis;
+            } else {
+                millis = (long) (number * 1000);
+            }
+        } catch (NumberFormatException e) {
+            millis = parseDurationMillis(value);
+            if (millis < 0) {
+                try {
+                    millis = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - nowMillis;
+                } catch (Exception ignored) {
+                    return 0L;
+                }
+            }
+        }
+        return Math.max(0L, millis) * 1_000_000L;
+    }
+    
+    /**
+     * @return the duration in millis, or -1 if the value is not a duration
+     */
+    private static long parseDurationMillis(String value) {
+        Matcher matcher = DURATION_PART.matcher(value);
+        double millis = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double amount = Double.parseDouble(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "ms":
+                    millis += amount;
+                    break;
+                case "s":
+                    millis += amount * 1000;
+                    break;
+                case "m":
+                    millis += amount * 60_000;
+                    break;
+                default:
+                    millis += amount * 3_600_000;
+                    break;
+            }
+            end = matcher.end();
+        }
+        return end == value.length() ? (long) millis : -1L;
+    }
+    
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+    
+    private TokenBucket playerBucket(UUID player, long now) {
+        TokenBucket bucket = players.get(player);
+        if (bucket == null) {
+            if (players.size() >= MAX_IDLE_PLAYERS) {
+                players.values().removeIf(existing -> existing.isFull(now));
+            }
+            bucket = new TokenBucket(playerRequestsPerMinute);
+            players.put(player, bucket);
+        }
+        return bucket;
+    }
+    
+    /**
+     * Bucket holding up to one minute's allowance, refilled continuously
+     * The balance may go negative (debt) when a reservation has to wait.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double balance;
+        private long lastNanos;
+        
+        private TokenBucket(int perMinute) {
+            this.capacity = Math.max(0, perMinute);
+            this.perNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.balance = capacity;
+            this.lastNanos = System.nanoTime();
+        }
+        
+        private void refill(long now) {
+            balance = Math.min(capacity, balance + (now - lastNanos) * perNano);
+            lastNanos = now;
+        }
+        
+        /**
+         * Refill up to now and return how long until cost is covered
+         */
+        private long waitNanos(int cost, long now) {
+            if (capacity == 0) {
+                return 0L;
+            }
+            refill(now);
+            return balance >= cost ? 0L : (long) Math.ceil((cost - balance) / perNano);
+        }
+        
+        private void take(int cost) {
+            if (capacity > 0) {
+                balance -= cost;
+            }
+        }
+        
+        private void give(int cost) {
+            if (capacity > 0) {
+                balance = Math.min(capacity, balance + cost);
+            }
+        }
+        
+        private boolean isFull(long now) {
+            return capacity == 0 || balance + (now - lastNanos) * perNano >= capacity;
+        }
+    }
+}
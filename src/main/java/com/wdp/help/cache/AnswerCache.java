@@ -0,0 +1,232 @@
+package com.wdp.help.cache;
+
+import com.wdp.help.ai.AIService.AIResponse;
+import com.wdp.help.context.ContextManager;
+import com.wdp.help.question.QuestionCanonicalizer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-wide cache of AI answers keyed by canonical question
+ * Bounded LRU with a time-to-live; a hit answers a question without any
+ * network I/O. Questions with the same canonical form hit directly, near
+ * duplicates are found by fingerprint. Each answer remembers the context files it was generated
+ * from, so a reload only evicts answers whose context actually changed.
+ * Answers are kept per variant (the player details the answer was generated
+ * with, e.g. their Discord link state) and only shared within it.
+ * Thread-safe.
+ */
+public class AnswerCache {
+    
+    // Between variant and canonical question in a key (canonical forms are letters, digits and spaces)
+    private static final char VARIANT_SEPARATOR = '|';
+    
+    private final QuestionCanonicalizer canonicalizer;
+    private final Map<String, CachedAnswer> entries;
+    private int maxEntries;
+    private long ttlMillis;
+    
+    public AnswerCache(QuestionCanonicalizer canonicalizer, int maxEntries, long ttlMillis) {
+        this.canonicalizer = canonicalizer;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<String, CachedAnswer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnswer> eldest) {
+                return size() > AnswerCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Apply new limits (e.g. after a reload); extra entries are evicted on the next put
+     */
+    public synchronized void configure(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+    
+    /**
+     * Get a cached answer, or null if missing or expired
+     */
+    public AIResponse get(String question, String variant) {
+        return get(question, variant, false);
+    }
+    
+    /**
+     * Get a cached answer
+     * @param variant the player details the answer must have been generated with ("" for none)
+     * @param allowExpired also return answers past their TTL (while the AI is unreachable)
+     */
+    public AIResponse get(String question, String variant, boolean allowExpired) {
+        String canonical = canonicalizer.canonicalize(question);
+        long fingerprint = canonicalizer.fingerprintCanonical(canonical);
+        String key = keyOf(variant, canonical);
+        
+        synchronized (this) {
+            CachedAnswer cached = entries.get(key);
+            if (cached == null) {
+                key = findSimilar(variant, fingerprint, allowExpired);
+                cached = key == null ? null : entries.get(key);
+            }
+            if (cached == null) {
+                return null;
+            }
+            if (!allowExpired && isExpired(cached)) {
+                entries.remove(key);
+                return null;
+            }
+            return cached.response;
+        }
+    }
+    
+    /**
+     * Find the key of a (live) near-duplicate (iteration does not touch LRU order)
+     */
+    private String findSimilar(String variant, long fingerprint, boolean allowExpired) {
+        for (Map.Entry<String, CachedAnswer> entry : entries.entrySet()) {
+            CachedAnswer cached = entry.getValue();
+            if ((allowExpired || !isExpired(cached)) && cached.variant.equals(variant)
+                    && canonicalizer.isSimilar(fingerprint, cached.fingerprint)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check whether a question has a live cached answer
+     */
+    public boolean contains(String question, String variant) {
+        return get(question, variant) != null;
+    }
+    
+    /**
+     * Cache an answer with the context it was generated from
+     * @param variant the player details the answer was generated with ("" for none)
+     */
+    public void put(String question, String variant, AIResponse response, ContextDependencies dependencies) {
+        if (response == null || response.getDisplayText().isEmpty()) {
+            return;
+        }
+        String canonical = canonicalizer.canonicalize(question);
+        CachedAnswer cached = new CachedAnswer(response, System.currentTimeMillis(), dependencies, variant,
+                canonicalizer.fingerprintCanonical(canonical));
+        synchronized (this) {
+            entries.put(keyOf(variant, canonical), cached);
+        }
+    }
+    
+    /**
+     * Evict answers generated from context files that changed, were removed,
+     * or from a different set of default files
+     * @return number of evicted answers
+     */
+    public synchronized int evictStale(ContextManager context) {
+        int evicted = 0;
+        Iterator<CachedAnswer> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            CachedAnswer cached = iterator.next();
+            if (isExpired(cached) || !cached.dependencies.isCurrent(context)) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+    
+    /**
+     * Copy all live entries, least recently used first
+     */
+    public synchronized List<Entry> snapshot() {
+        List<Entry> snapshot = new ArrayList<>(entries.size());
+        for (Map.Entry<String, CachedAnswer> entry : entries.entrySet()) {
+            if (!isExpired(entry.getValue())) {
+                CachedAnswer cached = entry.getValue();
+                snapshot.add(new Entry(entry.getKey(), cached.response, cached.createdAt, cached.dependencies));
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Add saved entries back, keeping their original creation time
+     * Entries whose context changed in the meantime are skipped.
+     */
+    public synchronized void restore(List<Entry> saved, ContextManager context) {
+        for (Entry entry : saved) {
+            String key = entry.getKey();
+            int separator = key.indexOf(VARIANT_SEPARATOR);
+            String variant = separator < 0 ? "" : key.substring(0, separator);
+            CachedAnswer cached = new CachedAnswer(entry.getResponse(), entry.getCreatedAt(), entry.getDependencies(), variant,
+                    canonicalizer.fingerprintCanonical(key.substring(separator + 1)));
+            if (!isExpired(cached) && cached.dependencies.isCurrent(context)) {
+                entries.put(entry.getKey(), cached);
+            }
+        }
+    }
+    
+    /**
+     * Drop all cached answers
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private static String keyOf(String variant, String canonical) {
+        return variant.isEmpty() ? canonical : variant + VARIANT_SEPARATOR + canonical;
+    }
+    
+    private boolean isExpired(CachedAnswer cached) {
+        return ttlMillis > 0 && System.currentTimeMillis() - cached.createdAt > ttlMillis;
+    }
+    
+    /**
+     * A cached answer as exported for snapshots
+     */
+    public static class Entry {
+        private final String key;
+        private final AIResponse response;
+        private final long createdAt;
+        private final ContextDependencies dependencies;
+        
+        public Entry(String key, AIResponse response, long createdAt, ContextDependencies dependencies) {
+            this.key = key;
+            this.response = response;
+            this.createdAt = createdAt;
+            this.dependencies = dependencies;
+        }
+        
+        public String getKey() { return key; }
+        public AIResponse getResponse() { return response; }
+        public long getCreatedAt() { return createdAt; }
+        public ContextDependencies getDependencies() { return dependencies; }
+    }
+    
+    /**
+     * A cached response with its creation time
+     */
+    private static class CachedAnswer {
+        private final AIResponse response;
+        private final long createdAt;
+        private final ContextDependencies dependencies;
+        private final String variant;
+        private final long fingerprint;
+        
+        private CachedAnswer(AIResponse response, long createdAt, ContextDependencies dependencies, String variant, long fingerprint) {
+            this.response = response;
+            this.createdAt = createdAt;
+            this.dependencies = dependencies;
+            this.variant = variant;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.wdp.help.cache;
+
+import com.wdp.help.ai.AIService.AIResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of the answer cache, so cached answers survive restarts
+ * Written on shutdown and memory-mapped on startup. Each entry keeps its
+ * context dependencies, so answers whose context files changed while the
+ * server was down are dropped on restore while the rest stay cached.
+ *
+ * Layout (big endian):
+ *   int magic, int version, int count,
+ *   count x { string key, long createdAt, int relevance, string title, string short, string answer,
+ *             long defaultSetHash, int fileCount, fileCount x { string name, long contentHash } }
+ *   where string = int byteLength + UTF-8 bytes
+ */
+public final class AnswerCacheSnapshot {
+    
+    private static final int MAGIC = 0x57444843; // "WDHC"
+    private static final int VERSION = 3;
+    
+    private AnswerCacheSnapshot() {
+    }
+    
+    /**
+     * Write entries to a snapshot file (replaced atomically via a temp file)
+     */
+    public static void save(File file, List<AnswerCache.Entry> entries) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (AnswerCache.Entry entry : entries) {
+                AIResponse response = entry.getResponse();
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getCreatedAt());
+                out.writeInt(response.getRelevanceScore());
+                writeString(out, response.getTitle());
+                writeString(out, response.getShortDescription());
+                writeString(out, response.getDisplayText());
+                
+                ContextDependencies dependencies = entry.getDependencies();
+                out.writeLong(dependencies.getDefaultSetHash());
+                out.writeInt(dependencies.getFiles().size());
+                for (Map.Entry<String, Long> dependency : dependencies.getFiles().entrySet()) {
+                    writeString(out, dependency.getKey());
+                    out.writeLong(dependency.getValue());
+                }
+            }
+        }
+        
+        if (!temp.renameTo(file)) {
+            // Windows cannot rename over an existing file
+            if (!file.delete() || !temp.renameTo(file)) {
+                throw new IOException("Could not replace " + file.getName());
+            }
+        }
+    }
+    
+    /**
+     * Read a snapshot, or an empty list if it is missing, corrupt or from an older version
+     */
+    public static List<AnswerCache.Entry> load(File file) throws IOException {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Collections.emptyList();
+            }
+            
+            int count = buffer.getInt();
+            List<AnswerCache.Entry> entries = new ArrayList<>(Math.max(0, Math.min(count, 10_000)));
+            for (int i = 0; i < count; i++) {
+                String key = readString(buffer);
+                long createdAt = buffer.getLong();
+                int relevance = buffer.getInt();
+                String title = readString(buffer);
+                String shortDescription = readString(buffer);
+                String answer = readString(buffer);
+                
+                long defaultSetHash = buffer.getLong();
+                int fileCount = buffer.getInt();
+                Map<String, Long> files = new LinkedHashMap<>();
+                for (int f = 0; f < fileCount; f++) {
+                    String name = readString(buffer);
+                    files.put(name, buffer.getLong());
+                }
+                
+                entries.add(new AnswerCache.Entry(key, new AIResponse(answer, shortDescription, title, relevance), createdAt,
+                        new ContextDependencies(files, defaultSetHash)));
+            }
+            return entries;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Truncated or corrupt snapshot
+            return Collections.emptyList();
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
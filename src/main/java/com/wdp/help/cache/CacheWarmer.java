@@ -0,0 +1,118 @@
+package com.wdp.help.cache;
+
+import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.config.ConfigManager;
+import com.wdp.help.metrics.HeavyHitters;
+import com.wdp.help.scheduler.TaskHandle;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refills the answer cache after a restart or reload
+ * Replays the most asked questions through the AI service in the background,
+ * at most a few at a time, and only while no player request is running or
+ * queued, so players never wait behind the warm-up. With DiscordSRV each
+ * question is warmed once per link state, like the cache keeps it.
+ */
+public class CacheWarmer {
+    
+    private static final long CHECK_INTERVAL_TICKS = 20L;
+    private static final int PROGRESS_LOG_EVERY = 10;
+    
+    private final WDPHelpPlugin plugin;
+    // Question and cache variant
+    private final Deque<Map.Entry<String, String>> pending;
+    private final AtomicInteger inFlight;
+    private final AtomicInteger done;
+    private final AtomicInteger failed;
+    private int total;
+    private TaskHandle task;
+    
+    public CacheWarmer(WDPHelpPlugin plugin) {
+        this.plugin = plugin;
+        this.pending = new ArrayDeque<>();
+        this.inFlight = new AtomicInteger();
+        this.done = new AtomicInteger();
+        this.failed = new AtomicInteger();
+    }
+    
+    /**
+     * Start warming with the current top questions (restarts a running warm-up)
+     */
+    public synchronized void start() {
+        stop();
+        
+        ConfigManager config = plugin.getConfigManager();
+        if (!config.isCacheEnabled() || !config.isCacheWarmupEnabled() || !config.isApiKeyConfigured()) {
+            return;
+        }
+        
+        AnswerCache cache = plugin.getAnswerCache();
+        for (HeavyHitters.Entry entry : plugin.getQuestionStats().getTop(config.getCacheWarmupQuestions())) {
+            for (String variant : plugin.getAIService().getCacheVariants()) {
+                if (!cache.contains(entry.getKey(), variant)) {
+                    pending.add(Map.entry(entry.getKey(), variant));
+                }
+            }
+        }
+        
+        total = pending.size();
+        done.set(0);
+        failed.set(0);
+        if (total == 0) {
+            return;
+        }
+        
+        plugin.getLogger().info("Cache warm-up: replaying " + total + " top questions in the background.");
+        task = plugin.getTaskScheduler().runGlobalTimer(this::tick, CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+    
+    /**
+     * Stop warming; requests already sent still complete
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pending.clear();
+    }
+    
+    /**
+     * Top up in-flight warm requests while players are not waiting
+     */
+    private synchronized void tick() {
+        if (pending.isEmpty()) {
+            if (inFlight.get() == 0) {
+                plugin.getLogger().info("Cache warm-up finished: " + done.get() + "/" + total + " cached"
+                        + (failed.get() > 0 ? ", " + failed.get() + " failed." : "."));
+                stop();
+            }
+            return;
+        }
+        
+        int concurrency = plugin.getConfigManager().getCacheWarmupConcurrency();
+        while (!pending.isEmpty() && inFlight.get() < concurrency && plugin.getAIService().isIdleForPlayers()) {
+            Map.Entry<String, String> next = pending.poll();
+            String question = next.getKey();
+            inFlight.incrementAndGet();
+            plugin.getAIService().warmQuestion(question, next.getValue()).whenComplete((response, error) -> {
+                inFlight.decrementAndGet();
+                if (error != null) {
+                    failed.incrementAndGet();
+                    if (plugin.getConfigManager().isDebugEnabled()) {
+                        plugin.getLogger().warning("Cache warm-up failed for '" + question + "': " + error.getMessage());
+                    }
+                    return;
+                }
+                int cached = done.incrementAndGet();
+                if (cached % PROGRESS_LOG_EVERY == 0) {
+                    plugin.getLogger().info("Cache warm-up: " + cached + "/" + total + " cached.");
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.wdp.help.cache;
+
+import com.wdp.help.context.ContextFile;
+import com.wdp.help.context.ContextManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The context files (and their content hashes) an answer was generated from
+ * Covers the default files sent in the system prompt plus any file fetched
+ * through the fetch_context tool. A cached answer stays valid as long as all
+ * of these files are unchanged and the set of default files is the same.
+ * Filled in on a single AI worker thread, read only after the answer completes.
+ */
+public class ContextDependencies {
+    
+    private final Map<String, Long> files;
+    private long defaultSetHash;
+    
+    public ContextDependencies() {
+        this.files = new LinkedHashMap<>();
+    }
+    
+    public ContextDependencies(Map<String, Long> files, long defaultSetHash) {
+        this.files = new LinkedHashMap<>(files);
+        this.defaultSetHash = defaultSetHash;
+    }
+    
+    /**
+     * Record a context file the answer was generated from
+     */
+    public void add(ContextFile file) {
+        files.put(file.getName(), file.getContentHash());
+    }
+    
+    /**
+     * Record which files were included by default
+     */
+    public void setDefaultSetHash(long defaultSetHash) {
+        this.defaultSetHash = defaultSetHash;
+    }
+    
+    /**
+     * Check whether every dependency still matches the loaded context
+     */
+    public boolean isCurrent(ContextManager context) {
+        if (context.getDefaultSetHash() != defaultSetHash) {
+            return false;
+        }
+        for (Map.Entry<String, Long> dependency : files.entrySet()) {
+            ContextFile file = context.getContextFile(dependency.getKey());
+            if (file == null || file.getContentHash() != dependency.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public Map<String, Long> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+    
+    public long getDefaultSetHash() {
+        return defaultSetHash;
+    }
+}
@@ -1,11 +1,25 @@
 package com.wdp.help.command;
 
 import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.ai.AIRequestHandle;
+import com.wdp.help.ai.AdaptiveConcurrencyLimiter;
+import com.wdp.help.ai.EndpointRouter;
+import com.wdp.help.ai.PriorityTier;
 import com.wdp.help.config.ConfigManager;
 import com.wdp.help.config.MessageManager;
 import com.wdp.help.data.HelpAnswer;
 import com.wdp.help.data.PlayerHelpData;
+import com.wdp.help.display.AnswerPages;
 import com.wdp.help.display.ChatDisplay;
+import com.wdp.help.faq.FaqEntry;
+import com.wdp.help.metrics.HeavyHitters;
+import com.wdp.help.question.QuestionCanonicalizer;
+import com.wdp.help.question.RelevanceFilter;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,12 +27,17 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Main help command handler
  * /help - Shows recent answers and info
  * /help [question] - Asks the AI
+ * /help page <n> - Shows a page of the current answer
+ * /help view <n> - Re-opens an answer from history
+ * /help cancel - Cancels the question being answered
  * /help reload - Reloads config (admin)
+ * /help top - Shows the most asked questions (admin)
  */
 public class HelpCommand implements CommandExecutor, TabCompleter {
     
@@ -26,6 +45,9 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
     private final MessageManager messages;
     private final ConfigManager config;
     
+    private static final BaseComponent[] BLANK_LINE = new BaseComponent[]{new TextComponent("")};
+    private static final int TOP_QUESTIONS_SHOWN = 10;
+    
     // Track active help sessions to prevent spam
     private final Set<UUID> activeSessions = Collections.synchronizedSet(new HashSet<>());
     
@@ -39,7 +61,7 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check if player
         if (!(sender instanceof Player)) {
-            sender.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("error.player-only")));
+            sender.sendMessage(messages.get("error.player-only"));
             return true;
         }
         
@@ -47,7 +69,7 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
         
         // Check permission
         if (!player.hasPermission("wdphelp.use")) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("error.no-permission")));
+            player.sendMessage(messages.get("error.no-permission"));
             return true;
         }
         
@@ -66,6 +88,28 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
                 return true;
             }
             
+            if (firstArg.equals("cancel") && args.length == 1) {
+                handleCancel(player);
+                return true;
+            }
+            
+            if (firstArg.equals("top") && args.length == 1 && player.hasPermission("wdphelp.admin.stats")) {
+                handleTop(player);
+                return true;
+            }
+            
+            // Paging through answers
+            if (args.length == 2 && isNumber(args[1])) {
+                if (firstArg.equals("page")) {
+                    handlePage(player, Integer.parseInt(args[1]));
+                    return true;
+                }
+                if (firstArg.equals("view")) {
+                    handleView(player, Integer.parseInt(args[1]));
+                    return true;
+                }
+            }
+            
             // Otherwise, treat as a question
             String question = String.join(" ", args);
             handleQuestion(player, question);
@@ -81,42 +125,69 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
      * Show the help menu with recent answers
      */
     private void showHelpMenu(Player player) {
-        player.sendMessage("");
-        player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.menu.header")));
-        player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.menu.description")));
-        player.sendMessage("");
+        UUID uuid = player.getUniqueId();
+        for (BaseComponent[] line : plugin.getMenuCache().get(uuid, () -> buildHelpMenu(uuid))) {
+            player.spigot().sendMessage(line);
+        }
+    }
+    
+    /**
+     * Render the help menu for a player (cached until their history or messages change)
+     */
+    private List<BaseComponent[]> buildHelpMenu(UUID uuid) {
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(BLANK_LINE);
+        lines.add(TextComponent.fromLegacyText(messages.get("help.menu.header")));
+        lines.add(TextComponent.fromLegacyText(messages.get("help.menu.description")));
+        lines.add(BLANK_LINE);
         
         // Show recent answers (deduplicated)
-        PlayerHelpData data = plugin.getPlayerDataManager().getData(player.getUniqueId());
+        PlayerHelpData data = plugin.getPlayerDataManager().getData(uuid);
         if (data.hasRecentAnswers()) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.menu.recent-header")));
+            lines.add(TextComponent.fromLegacyText(messages.get("help.menu.recent-header")));
             
-            // Track seen questions to mark duplicates
-            java.util.Set<Integer> seenHashes = new java.util.HashSet<>();
+            // Track seen question fingerprints to mark near-duplicates
+            QuestionCanonicalizer canonicalizer = plugin.getCanonicalizer();
+            List<Long> seenFingerprints = new ArrayList<>();
+            String viewHover = messages.get("help.menu.view-hover");
             
+            int index = 0;
             for (HelpAnswer answer : data.getRecentAnswers()) {
-                boolean isDuplicate = !seenHashes.add(answer.getQuestionHash());
+                index++;
+                long fingerprint = canonicalizer.fingerprint(answer.getQuestion());
+                boolean isDuplicate = false;
+                for (long seen : seenFingerprints) {
+                    if (canonicalizer.isSimilar(seen, fingerprint)) {
+                        isDuplicate = true;
+                        break;
+                    }
+                }
+                seenFingerprints.add(fingerprint);
                 
                 String item = messages.get("help.menu.recent-item", "title", answer.getTitle());
                 
                 // Add duplicate indicator
                 if (isDuplicate) {
-                    item = item + " &#888888(asked again)";
+                    item = item + messages.get("help.menu.duplicate-marker");
                 }
                 
-                player.sendMessage(WDPHelpPlugin.translateHexColors(item));
+                // Clicking the title re-opens the answer
+                TextComponent itemComponent = new TextComponent(TextComponent.fromLegacyText(item));
+                itemComponent.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/help view " + index));
+                itemComponent.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(viewHover)));
+                lines.add(new BaseComponent[]{itemComponent});
                 
                 // Show short description under title
-                String shortDesc = messages.get("help.menu.recent-short", "short", answer.getShortDescription());
-                player.sendMessage(WDPHelpPlugin.translateHexColors(shortDesc));
+                lines.add(TextComponent.fromLegacyText(messages.get("help.menu.recent-short", "short", answer.getShortDescription())));
             }
         } else {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.menu.no-recent")));
+            lines.add(TextComponent.fromLegacyText(messages.get("help.menu.no-recent")));
         }
         
-        player.sendMessage("");
-        player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.menu.footer")));
-        player.sendMessage("");
+        lines.add(BLANK_LINE);
+        lines.add(TextComponent.fromLegacyText(messages.get("help.menu.footer")));
+        lines.add(BLANK_LINE);
+        return lines;
     }
     
     /**
@@ -127,24 +198,55 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
         
         // Check if already processing
         if (activeSessions.contains(uuid)) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors("&#FFAA00Please wait for your current question to be answered!"));
+            player.sendMessage(messages.get("error.already-asking"));
+            return;
+        }
+        
+        // Known questions are answered from the local FAQ, no AI needed
+        FaqEntry faq = plugin.getFaqManager().match(question);
+        if (faq != null) {
+            answerFromFaq(player, question, faq);
             return;
         }
         
+        // Score the question locally before spending an AI request on it
+        String model = config.getModel();
+        if (config.isRelevanceFilterEnabled()) {
+            RelevanceFilter.Verdict verdict = plugin.getRelevanceFilter().classify(question, config);
+            plugin.getMetrics().recordRelevance(verdict);
+            if (config.isDebugEnabled()) {
+                plugin.getLogger().info("Relevance filter: " + verdict + " (" + 
+                        String.format("%.2f", plugin.getRelevanceFilter().score(question)) + ") for: " + question);
+            }
+            
+            if (verdict == RelevanceFilter.Verdict.OFF_TOPIC) {
+                plugin.getMetrics().recordQuestion();
+                player.sendMessage(messages.getPrefixed("help.off-topic"));
+                return;
+            }
+            if (verdict == RelevanceFilter.Verdict.BORDERLINE) {
+                model = config.getRelevanceBorderlineModel();
+            }
+        }
+        
         // Check if API is configured
         if (!config.isApiKeyConfigured()) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("error.invalid-key")));
+            player.sendMessage(messages.get("error.invalid-key"));
             return;
         }
         
         // Check if should suggest using /help
         if (plugin.getPlayerDataManager().shouldSuggestHelp(uuid, question)) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.get("help.repeat-tip")));
+            player.sendMessage(messages.get("help.repeat-tip"));
         }
         
         // Mark session as active
         activeSessions.add(uuid);
         
+        // Count towards the server-wide question stats
+        plugin.getQuestionStats().record(question);
+        plugin.getMetrics().recordQuestion();
+        
         // Create display handler
         ChatDisplay display = new ChatDisplay(plugin, player);
         
@@ -155,9 +257,11 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
         display.startThinkingAnimation();
         
         // Send question to AI
-        plugin.getAIService().askQuestion(
+        AIRequestHandle handle = plugin.getAIService().askQuestion(
                 uuid,
                 question,
+                model,
+                resolvePriorityTier(player),
                 // On chunk received
                 (chunk) -> {
                     display.appendText(chunk);
@@ -181,13 +285,18 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
                     int minRelevance = config.getRelevanceThreshold();
                     if (response.getRelevanceScore() >= minRelevance) {
                         // Save answer to player data
-                        plugin.getPlayerDataManager().addAnswer(
+                        HelpAnswer saved = plugin.getPlayerDataManager().addAnswer(
                                 uuid,
                                 question,
                                 response.getDisplayText(),
                                 response.getShortDescription(),
                                 response.getTitle()
                         );
+                        
+                        // Keep the rendered pages so /help view can reopen them
+                        if (display.getPages() != null) {
+                            plugin.getPageStore().putForAnswer(uuid, saved.getTimestamp(), display.getPages());
+                        }
                     } else if (config.isDebugEnabled()) {
                         // Log low relevance in debug mode
                         plugin.getLogger().info("Question from " + player.getName() + " had low relevance (" + 
@@ -208,12 +317,133 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
                     } else {
                         errorMsg = messages.get("error.api-error");
                     }
-                    player.sendMessage(WDPHelpPlugin.translateHexColors(errorMsg));
+                    display.showError(errorMsg);
                     
                     // Remove from active sessions
                     activeSessions.remove(uuid);
                 }
         );
+        
+        // Keep the player informed while the request waits for a slot
+        handle.onQueuePosition(display::setQueuePosition);
+        
+        // Cancelled by /help cancel or by quitting: stop the animation and free the session
+        handle.onCancel(() -> {
+            display.stopThinkingAnimation();
+            activeSessions.remove(uuid);
+        });
+    }
+    
+    /**
+     * Pick the first configured priority tier the player has the permission for
+     */
+    private PriorityTier resolvePriorityTier(Player player) {
+        for (PriorityTier tier : config.getPriorityTiers()) {
+            if (player.hasPermission(tier.getPermission())) {
+                return tier;
+            }
+        }
+        return PriorityTier.DEFAULT;
+    }
+    
+    /**
+     * Cancel the question the player is waiting for
+     */
+    private void handleCancel(Player player) {
+        if (plugin.getAIService().cancel(player.getUniqueId())) {
+            plugin.getOutputScheduler().clear(player.getUniqueId());
+            player.sendMessage(messages.get("help.cancelled"));
+        } else {
+            player.sendMessage(messages.get("help.nothing-to-cancel"));
+        }
+    }
+    
+    /**
+     * Show an FAQ answer and save it to history
+     * Runs entirely on the calling thread with no network I/O.
+     */
+    private void answerFromFaq(Player player, String question, FaqEntry faq) {
+        UUID uuid = player.getUniqueId();
+        
+        if (plugin.getPlayerDataManager().shouldSuggestHelp(uuid, question)) {
+            player.sendMessage(messages.get("help.repeat-tip"));
+        }
+        
+        plugin.getQuestionStats().record(question);
+        plugin.getMetrics().recordQuestion();
+        plugin.getMetrics().recordFaqAnswer();
+        
+        ChatDisplay display = new ChatDisplay(plugin, player);
+        display.showHeader();
+        display.showAnswer(faq.getAnswer());
+        display.showFooter();
+        
+        HelpAnswer saved = plugin.getPlayerDataManager().addAnswer(
+                uuid,
+                question,
+                faq.getAnswer(),
+                faq.getShortDescription(),
+                faq.getTitle()
+        );
+        if (display.getPages() != null) {
+            plugin.getPageStore().putForAnswer(uuid, saved.getTimestamp(), display.getPages());
+        }
+        
+        if (config.isDebugEnabled()) {
+            plugin.getLogger().info("Answered question from " + player.getName() + " with FAQ entry " + faq.getName() + ": " + question);
+        }
+    }
+    
+    /**
+     * Show a page (1-based) of the answer the player is currently reading
+     */
+    private void handlePage(Player player, int page) {
+        AnswerPages pages = plugin.getPageStore().getActive(player.getUniqueId());
+        if (pages == null) {
+            player.sendMessage(messages.get("help.page.none"));
+            return;
+        }
+        
+        if (page < 1 || page > pages.getPageCount()) {
+            player.sendMessage(messages.get("help.page.invalid"));
+            return;
+        }
+        
+        new ChatDisplay(plugin, player).showPage(pages, page - 1);
+    }
+    
+    /**
+     * Re-open an answer (1-based index in the /help menu) from history
+     */
+    private void handleView(Player player, int index) {
+        UUID uuid = player.getUniqueId();
+        List<HelpAnswer> recent = plugin.getPlayerDataManager().getData(uuid).getRecentAnswers();
+        if (index < 1 || index > recent.size()) {
+            player.sendMessage(messages.get("help.page.unknown-answer"));
+            return;
+        }
+        
+        HelpAnswer answer = recent.get(index - 1);
+        ChatDisplay display = new ChatDisplay(plugin, player);
+        
+        // Reuse the cached pages, or wrap the saved answer once
+        AnswerPages pages = plugin.getPageStore().getForAnswer(uuid, answer.getTimestamp());
+        if (pages == null) {
+            pages = new AnswerPages(display.getRenderer().wrap(answer.getAnswer()), config.getLinesPerPage());
+            plugin.getPageStore().putForAnswer(uuid, answer.getTimestamp(), pages);
+        }
+        
+        plugin.getPageStore().setActive(uuid, pages);
+        display.showPage(pages, 0);
+    }
+    
+    private boolean isNumber(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
     
     /**
@@ -222,9 +452,9 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
     private void handleReload(Player player) {
         try {
             plugin.reload();
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.getPrefixed("admin.reload-success")));
+            player.sendMessage(messages.getPrefixed("admin.reload-success"));
         } catch (Exception e) {
-            player.sendMessage(WDPHelpPlugin.translateHexColors(messages.getPrefixed("admin.reload-fail")));
+            player.sendMessage(messages.getPrefixed("admin.reload-fail"));
             plugin.getLogger().severe("Reload failed: " + e.getMessage());
         }
     }
@@ -235,7 +465,14 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
     private void handleDebug(Player player) {
         player.sendMessage("");
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#FFD700━━━━ &#FFFFFF&lWDP-Help Debug &#FFD700━━━━"));
-        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• API URL: &#FFFFFF" + config.getBaseUrl()));
+        for (EndpointRouter.Route route : plugin.getAIService().getRouter().getRoutes()) {
+            long p95 = route.getP95LatencyMillis();
+            player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Endpoint " + route.getEndpoint().getName() + ": &#FFFFFF" + 
+                    route.getEndpoint().getBaseUrl() + " &#AAAAAA(circuit: &#FFFFFF" + route.getBreaker().getState() + 
+                    "&#AAAAAA, failures: &#FFFFFF" + String.format("%.0f%%", route.getBreaker().getFailureRate() * 100) + 
+                    "&#AAAAAA, latency: &#FFFFFF" + route.getEwmaLatencyMillis() + "ms" + 
+                    "&#AAAAAA, p95: &#FFFFFF" + (p95 < 0 ? "-" : p95 + "ms") + "&#AAAAAA)"));
+        }
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Model: &#FFFFFF" + config.getModel()));
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• API Key: &#FFFFFF" + (config.isApiKeyConfigured() ? "Configured" : "NOT SET")));
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• OpenRouter: &#FFFFFF" + (config.isOpenRouterEnabled() ? "Enabled" : "Disabled")));
@@ -243,42 +480,53 @@ public class HelpCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Context Files: &#FFFFFF" + plugin.getContextManager().getAllContextFiles().size()));
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Default Context: &#FFFFFF" + plugin.getContextManager().getDefaultContextFiles().size()));
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Extra Context: &#FFFFFF" + plugin.getContextManager().getExtraContextNames().size()));
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Chat Lines Sent: &#FFFFFF" + plugin.getMetrics().getLinesSent() + 
+                " &#AAAAAA(deferred: &#FFFFFF" + plugin.getMetrics().getLinesDeferred() + "&#AAAAAA)"));
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Answer Cache: &#FFFFFF" + plugin.getAnswerCache().size() + 
+                " &#AAAAAA(hits: &#FFFFFF" + plugin.getMetrics().getCacheHits() + "&#AAAAAA, misses: &#FFFFFF" + plugin.getMetrics().getCacheMisses() + "&#AAAAAA)"));
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• FAQ Entries: &#FFFFFF" + plugin.getFaqManager().size() + 
+                " &#AAAAAA(answered: &#FFFFFF" + plugin.getMetrics().getFaqAnswers() + "&#AAAAAA)"));
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Answered Locally: &#FFFFFF" + 
+                String.format("%.1f%%", plugin.getMetrics().getLocalAnswerPercent()) + 
+                " &#AAAAAA(of &#FFFFFF" + plugin.getMetrics().getQuestionsAsked() + "&#AAAAAA questions)"));
+        AdaptiveConcurrencyLimiter limiter = plugin.getAIService().getLimiter();
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• AI Concurrency Limit: &#FFFFFF" + limiter.getLimit() + 
+                " &#AAAAAA(in flight: &#FFFFFF" + limiter.getInFlight() + "&#AAAAAA, waiting: &#FFFFFF" + plugin.getAIService().getQueuedRequests() + "&#AAAAAA)"));
+        long pauseMillis = TimeUnit.NANOSECONDS.toMillis(plugin.getAIService().getRateLimiter().getPauseRemainingNanos());
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Upstream Rate Limit: &#FFFFFF" + 
+                (pauseMillis > 0 ? "Paused for " + pauseMillis + "ms" : "OK")));
+        player.sendMessage(WDPHelpPlugin.translateHexColors("&#AAAAAA• Relevance Filter: &#FFFFFF" + 
+                (config.isRelevanceFilterEnabled() ? plugin.getRelevanceFilter().getVocabularySize() + " words" : "Disabled") + 
+                " &#AAAAAA(off-topic: &#FFFFFF" + plugin.getMetrics().getOffTopic() + 
+                "&#AAAAAA, borderline: &#FFFFFF" + plugin.getMetrics().getBorderline() + 
+                "&#AAAAAA, relevant: &#FFFFFF" + plugin.getMetrics().getRelevant() + "&#AAAAAA)"));
         player.sendMessage(WDPHelpPlugin.translateHexColors("&#FFD700━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
         player.sendMessage("");
     }
     
-    @Override
-    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        List<String> completions = new ArrayList<>();
+    /**
+     * Handle top command (most asked questions server-wide)
+     */
+    private void handleTop(Player player) {
+        List<HeavyHitters.Entry> top = plugin.getQuestionStats().getTop(TOP_QUESTIONS_SHOWN);
         
-        if (args.length == 1) {
-            String partial = args[0].toLowerCase();
-            
-            // Admin commands
-            if (sender.hasPermission("wdphelp.admin.reload")) {
-                if ("reload".startsWith(partial)) completions.add("reload");
-            }
-            if (sender.hasPermission("wdphelp.admin.debug")) {
-                if ("debug".startsWith(partial)) completions.add("debug");
-            }
-            
-            // Suggest common questions
-            List<String> suggestions = Arrays.asList(
-                    "how do I teleport",
-                    "how to get money",
-                    "what are skills",
-                    "how to link discord",
-                    "how to set home",
-                    "what is the wanderer"
-            );
-            
-            for (String suggestion : suggestions) {
-                if (suggestion.toLowerCase().startsWith(partial)) {
-                    completions.add(suggestion);
-                }
-            }
+        player.sendMessage("");
+        player.sendMessage(messages.get("admin.top.header"));
+        if (top.isEmpty()) {
+            player.sendMessage(messages.get("admin.top.empty"));
         }
-        
-        return completions;
+        int rank = 0;
+        for (HeavyHitters.Entry entry : top) {
+            rank++;
+            player.sendMessage(messages.get("admin.top.entry", "rank", rank, "question", entry.getKey(), "count", entry.getCount()));
+        }
+        player.sendMessage(messages.get("admin.top.footer", "total", plugin.getQuestionStats().getTotal()));
+        player.sendMessage("");
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        // Served from the prebuilt suggestion trie (on Paper this runs async instead)
+        return plugin.getTabCompletion().complete(sender, args);
     }
 }
@@ -0,0 +1,111 @@
+package com.wdp.help.completion;
+
+import com.wdp.help.WDPHelpPlugin;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serves /help completions from Paper's AsyncTabCompleteEvent, so they are
+ * computed off the main thread. The plugin compiles against the Spigot API,
+ * so the event is resolved reflectively; on Spigot nothing is registered and
+ * the command's regular tab completer is used instead.
+ */
+public class AsyncTabCompleteListener implements Listener {
+    
+    private static final String EVENT_CLASS = "com.destroystokyo.paper.event.server.AsyncTabCompleteEvent";
+    
+    private final TabCompletionService completions;
+    private final Set<String> labels;
+    
+    private final Method getBuffer;
+    private final Method isCommand;
+    private final Method getSender;
+    private final Method isHandled;
+    private final Method setCompletions;
+    private final Method setHandled;
+    
+    private AsyncTabCompleteListener(WDPHelpPlugin plugin, TabCompletionService completions, Class<?> eventClass) throws ReflectiveOperationException {
+        this.completions = completions;
+        this.labels = new HashSet<>();
+        
+        this.getBuffer = eventClass.getMethod("getBuffer");
+        this.isCommand = eventClass.getMethod("isCommand");
+        this.getSender = eventClass.getMethod("getSender");
+        this.isHandled = eventClass.getMethod("isHandled");
+        this.setCompletions = eventClass.getMethod("setCompletions", List.class);
+        this.setHandled = eventClass.getMethod("setHandled", boolean.class);
+        
+        // /help, its aliases and their namespaced forms
+        PluginCommand command = plugin.getCommand("help");
+        labels.add("help");
+        if (command != null && command.getAliases() != null) {
+            for (String alias : command.getAliases()) {
+                labels.add(alias.toLowerCase());
+            }
+        }
+        for (String label : new HashSet<>(labels)) {
+            labels.add(plugin.getName().toLowerCase() + ":" + label);
+        }
+    }
+    
+    /**
+     * Register the listener if the server has Paper's async tab complete event
+     * @return true if registered
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean register(WDPHelpPlugin plugin, TabCompletionService completions) {
+        Class<?> eventClass;
+        try {
+            eventClass = Class.forName(EVENT_CLASS);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        
+        try {
+            AsyncTabCompleteListener listener = new AsyncTabCompleteListener(plugin, completions, eventClass);
+            plugin.getServer().getPluginManager().registerEvent((Class<? extends Event>) eventClass, listener,
+                    EventPriority.NORMAL, (l, event) -> listener.handle(event), plugin, true);
+            return true;
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Paper async tab completion unavailable, using sync completer: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private void handle(Event event) {
+        try {
+            if (!(boolean) isCommand.invoke(event) || (boolean) isHandled.invoke(event)) {
+                return;
+            }
+            
+            // "/help how do" -> label "help", args ["how", "do"]
+            String buffer = (String) getBuffer.invoke(event);
+            if (buffer.startsWith("/")) {
+                buffer = buffer.substring(1);
+            }
+            int space = buffer.indexOf(' ');
+            if (space < 0 || !labels.contains(buffer.substring(0, space).toLowerCase())) {
+                return;
+            }
+            String[] args = buffer.substring(space + 1).split(" ", -1);
+            
+            CommandSender sender = (CommandSender) getSender.invoke(event);
+            if (!sender.hasPermission("wdphelp.use")) {
+                return;
+            }
+            
+            setCompletions.invoke(event, completions.complete(sender, args));
+            setHandled.invoke(event, true);
+        } catch (ReflectiveOperationException e) {
+            // Leave the event to the sync completer
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.wdp.help.completion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix trie of /help suggestions
+ * Every node keeps its best suggestions (by weight) precomputed at build time,
+ * so a lookup only walks the typed prefix and never scans the entries.
+ * Built off the main thread and swapped in whole; safe for concurrent reads.
+ */
+public class SuggestionTrie {
+    
+    public static final SuggestionTrie EMPTY = new Builder(0).build();
+    
+    private final Node root;
+    
+    private SuggestionTrie(Node root) {
+        this.root = root;
+    }
+    
+    /**
+     * Get the best suggestions starting with an already normalized prefix
+     */
+    public List<String> complete(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node == null ? Collections.emptyList() : node.top;
+    }
+    
+    /**
+     * Normalize text for matching: lower case, single spaces, no outer whitespace
+     */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+    
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private List<String> top = new ArrayList<>();
+    }
+    
+    /**
+     * Collects weighted entries and builds the trie
+     */
+    public static class Builder {
+        
+        private final int maxPerPrefix;
+        private final Map<String, Integer> weights;
+        
+        public Builder(int maxPerPrefix) {
+            this.maxPerPrefix = maxPerPrefix;
+            this.weights = new HashMap<>();
+        }
+        
+        /**
+         * Add a suggestion; duplicates keep their highest weight
+         */
+        public Builder add(String suggestion, int weight) {
+            if (suggestion != null) {
+                String key = normalize(suggestion);
+                if (!key.isEmpty()) {
+                    weights.merge(key, weight, Math::max);
+                }
+            }
+            return this;
+        }
+        
+        public SuggestionTrie build() {
+            // Insert best first, so each node's list fills up in rank order
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(weights.entrySet());
+            entries.sort((a, b) -> {
+                int byWeight = Integer.compare(b.getValue(), a.getValue());
+                return byWeight != 0 ? byWeight : a.getKey().compareTo(b.getKey());
+            });
+            
+            Node root = new Node();
+            for (Map.Entry<String, Integer> entry : entries) {
+                String key = entry.getKey();
+                Node node = root;
+                addTop(node, key);
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                    addTop(node, key);
+                }
+            }
+            
+            freeze(root);
+            return new SuggestionTrie(root);
+        }
+        
+        private void addTop(Node node, String key) {
+            if (node.top.size() < maxPerPrefix) {
+                node.top.add(key);
+            }
+        }
+        
+        private void freeze(Node root) {
+            List<Node> stack = new ArrayList<>();
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.remove(stack.size() - 1);
+                node.top = Collections.unmodifiableList(node.top);
+                stack.addAll(node.children.values());
+            }
+        }
+    }
+}
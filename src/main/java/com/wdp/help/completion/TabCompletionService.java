@@ -0,0 +1,163 @@
+package com.wdp.help.completion;
+
+import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.config.ConfigManager;
+import com.wdp.help.context.ContextFile;
+import com.wdp.help.metrics.HeavyHitters;
+import com.wdp.help.scheduler.TaskHandle;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tab completion for /help
+ * Suggestions come from context file titles and descriptions plus the
+ * server-wide most asked questions. The trie is rebuilt in the background
+ * on startup, reload and every few minutes; lookups only read the current
+ * trie, so they are cheap on the main thread and safe from Paper's async
+ * tab complete event.
+ */
+public class TabCompletionService {
+    
+    // Context entries rank above any question asked fewer times than this
+    private static final int CONTEXT_TITLE_WEIGHT = 5;
+    private static final int CONTEXT_DESCRIPTION_WEIGHT = 1;
+    private static final String[][] SUBCOMMANDS = {
+        {"cancel", "wdphelp.use"},
+        {"reload", "wdphelp.admin.reload"},
+        {"debug", "wdphelp.admin.debug"},
+        {"top", "wdphelp.admin.stats"}
+    };
+    
+    private final WDPHelpPlugin plugin;
+    private final AtomicBoolean rebuilding;
+    // A rebuild was requested while one was running (e.g. contexts reloaded meanwhile)
+    private final AtomicBoolean dirty;
+    private volatile SuggestionTrie trie;
+    private TaskHandle rebuildTask;
+    
+    public TabCompletionService(WDPHelpPlugin plugin) {
+        this.plugin = plugin;
+        this.rebuilding = new AtomicBoolean(false);
+        this.dirty = new AtomicBoolean(false);
+        this.trie = SuggestionTrie.EMPTY;
+    }
+    
+    /**
+     * Rebuild now and (re)schedule the periodic rebuild from config
+     */
+    public void start() {
+        stop();
+        rebuild();
+        
+        int minutes = plugin.getConfigManager().getCompletionRebuildInterval();
+        if (minutes > 0) {
+            long period = minutes * 60L * 20L;
+            rebuildTask = plugin.getTaskScheduler().runGlobalTimer(this::rebuild, period, period);
+        }
+    }
+    
+    /**
+     * Stop the periodic rebuild
+     */
+    public void stop() {
+        if (rebuildTask != null) {
+            rebuildTask.cancel();
+            rebuildTask = null;
+        }
+    }
+    
+    /**
+     * Rebuild the suggestion trie in the background
+     * Context files are copied on the calling thread, everything else runs async.
+     * A request during a running rebuild is not dropped: it runs again once
+     * the current one finishes, so it sees the newer context files.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            dirty.set(true);
+            // The running one may have finished between the two checks
+            if (rebuilding.get() || !dirty.getAndSet(false)) {
+                return;
+            }
+            rebuild();
+            return;
+        }
+        
+        ConfigManager config = plugin.getConfigManager();
+        int maxSuggestions = config.getCompletionMaxSuggestions();
+        int popularQuestions = config.getCompletionPopularQuestions();
+        List<ContextFile> contextFiles = plugin.getContextManager().getAllContextFiles();
+        
+        CompletableFuture.runAsync(() -> {
+            SuggestionTrie.Builder builder = new SuggestionTrie.Builder(maxSuggestions);
+            
+            for (ContextFile file : contextFiles) {
+                builder.add(file.getTitle(), CONTEXT_TITLE_WEIGHT);
+                builder.add(file.getDescription(), CONTEXT_DESCRIPTION_WEIGHT);
+            }
+            
+            // Most asked questions, weighted by how often they were asked
+            for (HeavyHitters.Entry entry : plugin.getQuestionStats().getTop(popularQuestions)) {
+                builder.add(entry.getKey(), (int) Math.min(Integer.MAX_VALUE, entry.getCount()));
+            }
+            
+            trie = builder.build();
+        }).whenComplete((ignored, error) -> {
+            rebuilding.set(false);
+            if (error != null) {
+                plugin.getLogger().warning("Failed to rebuild tab completions: " + error.getMessage());
+            }
+            // Context files must be read on the main thread / global region
+            if (dirty.getAndSet(false)) {
+                plugin.getTaskScheduler().runGlobal(this::rebuild);
+            }
+        });
+    }
+    
+    /**
+     * Complete the arguments of /help (safe to call from any thread)
+     * Bukkit replaces only the last argument, so each suggestion is returned
+     * from the start of that argument.
+     */
+    public List<String> complete(CommandSender sender, String[] args) {
+        if (args.length == 0) {
+            return Collections.emptyList();
+        }
+        
+        List<String> completions = new ArrayList<>();
+        String last = args[args.length - 1].toLowerCase();
+        
+        // Admin commands
+        if (args.length == 1) {
+            for (String[] subcommand : SUBCOMMANDS) {
+                if (subcommand[0].startsWith(last) && sender.hasPermission(subcommand[1])) {
+                    completions.add(subcommand[0]);
+                }
+            }
+        }
+        
+        // Questions and topics matching everything typed so far
+        String prefix = SuggestionTrie.normalize(String.join(" ", args));
+        int lastStart;
+        if (last.isEmpty()) {
+            // Trailing space: the next word starts a new argument
+            prefix = prefix.isEmpty() ? prefix : prefix + " ";
+            lastStart = prefix.length();
+        } else {
+            lastStart = prefix.length() - SuggestionTrie.normalize(last).length();
+        }
+        
+        for (String suggestion : trie.complete(prefix)) {
+            if (suggestion.length() > lastStart) {
+                completions.add(suggestion.substring(lastStart));
+            }
+        }
+        
+        return completions;
+    }
+}
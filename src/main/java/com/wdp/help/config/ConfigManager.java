@@ -1,9 +1,19 @@
 package com.wdp.help.config;
 
 import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.ai.Endpoint;
+import com.wdp.help.ai.PriorityTier;
+import com.wdp.help.display.ColorTranslator;
+import com.wdp.help.display.ThinkingMode;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,12 +33,45 @@ public class ConfigManager {
     private int maxTokens;
     private double temperature;
     private int timeout;
+    private int connectTimeout;
+    private int firstTokenTimeout;
+    private int idleTimeout;
+    
+    // Adaptive Concurrency
+    private int concurrencyInitialLimit;
+    private int concurrencyMinLimit;
+    private double concurrencyBackoffRatio;
+    private double concurrencyLatencyTolerance;
+    
+    // Rate Limits
+    private int rateLimitRequestsPerMinute;
+    private int rateLimitTokensPerMinute;
+    private int rateLimitPlayerRequestsPerMinute;
+    
+    // Circuit Breaker
+    private boolean circuitBreakerEnabled;
+    private int circuitBreakerWindowSize;
+    private int circuitBreakerMinCalls;
+    private double circuitBreakerFailureRate;
+    private long circuitBreakerSlowCallMillis;
+    private double circuitBreakerSlowCallRate;
+    private int circuitBreakerOpenSeconds;
+    
+    // Endpoints and Hedging
+    private List<Endpoint> endpoints;
+    private boolean hedgingEnabled;
+    private double hedgingPercentile; // As a fraction (0.95)
+    private long hedgingDefaultDelayMillis;
+    private long hedgingMinDelayMillis;
     private boolean streamEnabled;
     
     // Context Settings
     private String contextDirectory;
     private int maxContextLength;
     private int historyCount;
+    private int historyRelatedTurns;
+    private double historyMinSimilarity;
+    private int historySummaryTopics;
     private int suggestHelpAfter;
     private int relevanceThreshold;
     
@@ -37,12 +80,65 @@ public class ConfigManager {
     private String footer;
     private String aiPrefix;
     private String thinkingInitial;
+    private ThinkingMode thinkingMode;
+    private BarColor bossBarColor;
+    private BarStyle bossBarStyle;
     private String[] dotsPattern;
     private int animationSpeed;
     private int messageDelay;
     private int messageInterval;
     private String toolPrefix;
     private String toolSuffix;
+    private int outputLinesPerTick;
+    private int outputLinesPerPlayerPerTick;
+    private boolean paginationEnabled;
+    private int linesPerPage;
+    
+    // Tab Completion
+    private int completionMaxSuggestions;
+    private int completionPopularQuestions;
+    private int completionRebuildInterval;
+    
+    // Pre-rendered display strings (color codes translated once per reload)
+    private String renderedHeader;
+    private String renderedFooter;
+    private String renderedAiPrefix;
+    private String renderedAiPrefixStripped;
+    private String renderedThinkingInitial;
+    private String[] renderedDotsPattern;
+    private String renderedToolPrefix;
+    private String renderedToolSuffix;
+    
+    // Question Matching
+    private int questionMaxDistance;
+    private List<String> questionStopWords;
+    private Map<String, String> questionSynonyms;
+    
+    // Relevance Filter
+    private boolean relevanceFilterEnabled;
+    private double relevanceFullModelScore;
+    private double relevanceRejectBelow;
+    private String relevanceBorderlineModel;
+    private List<String> relevanceGameWords;
+    private List<String> relevanceOffTopicWords;
+    
+    // Local FAQ
+    private boolean faqEnabled;
+    private String faqDirectory;
+    private int faqMaxDistance;
+    
+    // Answer Cache
+    private boolean cacheEnabled;
+    private int cacheMaxEntries;
+    private int cacheTtlMinutes;
+    private boolean cachePersistEnabled;
+    private boolean cacheWarmupEnabled;
+    private int cacheWarmupQuestions;
+    private int cacheWarmupConcurrency;
+    
+    // Statistics
+    private int statsCapacity;
+    private int statsSaveInterval;
     
     // Debug
     private boolean debugEnabled;
@@ -53,6 +149,27 @@ public class ConfigManager {
     private boolean threadWarningEnabled;
     private int maxThreads;
     private int threadQueueSize;
+    private int queueUsageHalfLife;
+    private List<PriorityTier> priorityTiers;
+    
+    // Question words (how, where, can, ...) are not stop words: "where is the event" and
+    // "when is the event" share the answer cache, so they must not become the same question
+    public static final List<String> DEFAULT_STOP_WORDS = Arrays.asList(
+            "a", "an", "the", "i", "me", "my", "you", "your", "we", "is", "are", "am", "was", "be",
+            "do", "does", "did", "to", "of", "in", "on", "for", "with", "and", "or", "it", "this", "that",
+            "there", "please");
+    
+    private static final List<String> DEFAULT_GAME_WORDS = Arrays.asList(
+            "minecraft", "server", "block", "craft", "mine", "build", "diamond", "iron", "gold", "netherite",
+            "nether", "end", "portal", "villager", "trade", "enchant", "armor", "sword", "pickaxe", "mob",
+            "creeper", "zombie", "farm", "spawn", "biome", "redstone", "potion", "xp", "level", "rank",
+            "claim", "base", "home", "teleport", "money", "shop", "quest", "skill", "discord", "elytra",
+            "beacon", "chest", "inventory", "item", "recipe", "player", "command", "world", "pvp");
+    
+    private static final List<String> DEFAULT_OFF_TOPIC_WORDS = Arrays.asList(
+            "poem", "essay", "story", "joke", "song", "lyrics", "homework", "translate", "python",
+            "javascript", "math", "equation", "weather", "news", "politics", "president", "movie",
+            "girlfriend", "boyfriend", "stock", "crypto", "bitcoin");
     
     public ConfigManager(WDPHelpPlugin plugin) {
         this.plugin = plugin;
@@ -75,13 +192,46 @@ public class ConfigManager {
         siteTitle = config.getString("ai.openrouter.site-title", "WDP-Server");
         maxTokens = config.getInt("ai.request.max-tokens", 1024);
         temperature = config.getDouble("ai.request.temperature", 0.7);
-        timeout = config.getInt("ai.request.timeout", 30);
+        timeout = Math.max(1, config.getInt("ai.request.timeout", 30));
+        connectTimeout = Math.max(1, config.getInt("ai.request.connect-timeout", 5));
+        firstTokenTimeout = Math.max(1, config.getInt("ai.request.first-token-timeout", 15));
+        idleTimeout = Math.max(1, config.getInt("ai.request.idle-timeout", 10));
+        
+        // Adaptive Concurrency
+        concurrencyInitialLimit = Math.max(1, config.getInt("ai.concurrency.initial-limit", 4));
+        concurrencyMinLimit = Math.max(1, config.getInt("ai.concurrency.min-limit", 1));
+        concurrencyBackoffRatio = config.getDouble("ai.concurrency.backoff-ratio", 0.7);
+        concurrencyLatencyTolerance = config.getDouble("ai.concurrency.latency-tolerance", 2.0);
+        
+        // Rate Limits
+        rateLimitRequestsPerMinute = Math.max(0, config.getInt("ai.rate-limit.requests-per-minute", 60));
+        rateLimitTokensPerMinute = Math.max(0, config.getInt("ai.rate-limit.tokens-per-minute", 0));
+        rateLimitPlayerRequestsPerMinute = Math.max(0, config.getInt("ai.rate-limit.player-requests-per-minute", 6));
+        
+        // Circuit Breaker
+        circuitBreakerEnabled = config.getBoolean("ai.circuit-breaker.enabled", true);
+        circuitBreakerWindowSize = Math.max(1, config.getInt("ai.circuit-breaker.window-size", 20));
+        circuitBreakerMinCalls = Math.max(1, config.getInt("ai.circuit-breaker.min-calls", 10));
+        circuitBreakerFailureRate = config.getDouble("ai.circuit-breaker.failure-rate", 50.0);
+        circuitBreakerSlowCallMillis = Math.max(0, config.getInt("ai.circuit-breaker.slow-call-seconds", 20)) * 1000L;
+        circuitBreakerSlowCallRate = config.getDouble("ai.circuit-breaker.slow-call-rate", 80.0);
+        circuitBreakerOpenSeconds = Math.max(1, config.getInt("ai.circuit-breaker.open-seconds", 30));
+        
+        // Endpoints and Hedging
+        endpoints = loadEndpoints(config);
+        hedgingEnabled = config.getBoolean("ai.hedging.enabled", true);
+        hedgingPercentile = Math.max(50.0, Math.min(99.9, config.getDouble("ai.hedging.percentile", 95.0))) / 100.0;
+        hedgingDefaultDelayMillis = Math.round(Math.max(0.0, config.getDouble("ai.hedging.default-delay", 3.0)) * 1000);
+        hedgingMinDelayMillis = Math.round(Math.max(0.0, config.getDouble("ai.hedging.min-delay", 0.5)) * 1000);
         streamEnabled = config.getBoolean("ai.request.stream", true);
         
         // Context Settings
         contextDirectory = config.getString("context.directory", "context");
         maxContextLength = config.getInt("context.max-length", 15000);
         historyCount = config.getInt("context.history.count", 5);
+        historyRelatedTurns = Math.max(0, config.getInt("context.history.related-turns", 2));
+        historyMinSimilarity = config.getDouble("context.history.min-similarity", 0.3);
+        historySummaryTopics = Math.max(0, config.getInt("context.history.summary-topics", 8));
         suggestHelpAfter = config.getInt("context.history.suggest-help-after", 3);
         relevanceThreshold = config.getInt("context.history.relevance-threshold", 6);
         
@@ -90,6 +240,9 @@ public class ConfigManager {
         footer = config.getString("display.footer", "&#FFD700━━━━━━━━━━━━━━━━━━━━");
         aiPrefix = config.getString("display.ai-prefix", "&#55FFFF");
         thinkingInitial = config.getString("display.thinking.initial", "&#AAAAAA● &#FFFFFFThinking...");
+        thinkingMode = ThinkingMode.fromString(config.getString("display.thinking.mode", "chat"));
+        bossBarColor = parseEnum(BarColor.class, config.getString("display.thinking.bossbar.color", "YELLOW"), BarColor.YELLOW);
+        bossBarStyle = parseEnum(BarStyle.class, config.getString("display.thinking.bossbar.style", "SOLID"), BarStyle.SOLID);
         dotsPattern = config.getStringList("display.thinking.dots-pattern").toArray(new String[0]);
         if (dotsPattern.length == 0) {
             dotsPattern = new String[]{"&#FFD700● &#AAAAAA○ ○", "&#AAAAAA○ &#FFD700● &#AAAAAA○", "&#AAAAAA○ ○ &#FFD700●"};
@@ -99,6 +252,59 @@ public class ConfigManager {
         messageInterval = config.getInt("display.thinking.message-interval", 3);
         toolPrefix = config.getString("display.tool.prefix", "&#FFAA00⚡ ");
         toolSuffix = config.getString("display.tool.suffix", "");
+        outputLinesPerTick = Math.max(1, config.getInt("display.output.lines-per-tick", 60));
+        outputLinesPerPlayerPerTick = Math.max(1, config.getInt("display.output.lines-per-player-per-tick", 15));
+        paginationEnabled = config.getBoolean("display.pagination.enabled", true);
+        linesPerPage = Math.max(1, config.getInt("display.pagination.lines-per-page", 8));
+        renderDisplayStrings();
+        
+        // Tab Completion
+        completionMaxSuggestions = Math.max(1, config.getInt("completion.max-suggestions", 20));
+        completionPopularQuestions = Math.max(0, config.getInt("completion.popular-questions", 100));
+        completionRebuildInterval = Math.max(0, config.getInt("completion.rebuild-interval", 10));
+        
+        // Question Matching
+        questionMaxDistance = Math.max(0, Math.min(64, config.getInt("questions.max-distance", 3)));
+        questionStopWords = config.contains("questions.stop-words")
+                ? config.getStringList("questions.stop-words")
+                : DEFAULT_STOP_WORDS;
+        questionSynonyms = new HashMap<>();
+        ConfigurationSection synonyms = config.getConfigurationSection("questions.synonyms");
+        if (synonyms != null) {
+            for (String word : synonyms.getKeys(false)) {
+                questionSynonyms.put(word, synonyms.getString(word, word));
+            }
+        }
+        
+        // Relevance Filter
+        relevanceFilterEnabled = config.getBoolean("relevance-filter.enabled", true);
+        relevanceFullModelScore = config.getDouble("relevance-filter.full-model-score", 0.5);
+        relevanceRejectBelow = config.getDouble("relevance-filter.reject-below", 0.0);
+        relevanceBorderlineModel = config.getString("relevance-filter.borderline-model", "");
+        relevanceGameWords = config.contains("relevance-filter.game-words")
+                ? config.getStringList("relevance-filter.game-words")
+                : DEFAULT_GAME_WORDS;
+        relevanceOffTopicWords = config.contains("relevance-filter.off-topic-words")
+                ? config.getStringList("relevance-filter.off-topic-words")
+                : DEFAULT_OFF_TOPIC_WORDS;
+        
+        // Local FAQ
+        faqEnabled = config.getBoolean("faq.enabled", true);
+        faqDirectory = config.getString("faq.directory", "faq");
+        faqMaxDistance = Math.max(0, Math.min(64, config.getInt("faq.max-distance", 3)));
+        
+        // Answer Cache
+        cacheEnabled = config.getBoolean("cache.enabled", true);
+        cacheMaxEntries = Math.max(1, config.getInt("cache.max-entries", 500));
+        cacheTtlMinutes = Math.max(0, config.getInt("cache.ttl-minutes", 1440));
+        cachePersistEnabled = config.getBoolean("cache.persist", true);
+        cacheWarmupEnabled = config.getBoolean("cache.warmup.enabled", true);
+        cacheWarmupQuestions = Math.max(0, config.getInt("cache.warmup.questions", 20));
+        cacheWarmupConcurrency = Math.max(1, config.getInt("cache.warmup.concurrency", 2));
+        
+        // Statistics
+        statsCapacity = Math.max(10, config.getInt("stats.tracked-questions", 1000));
+        statsSaveInterval = Math.max(0, config.getInt("stats.save-interval", 5));
         
         // Debug
         debugEnabled = config.getBoolean("debug.enabled", false);
@@ -108,18 +314,88 @@ public class ConfigManager {
         // Thread Settings
         threadWarningEnabled = config.getBoolean("thread.warning-enabled", true);
         maxThreads = config.getInt("thread.max-threads", 10);
-        threadQueueSize = config.getInt("thread.queue-size", 50);
+        threadQueueSize = Math.max(1, config.getInt("thread.queue-size", 50));
+        queueUsageHalfLife = Math.max(0, config.getInt("thread.usage-half-life", 10));
+        priorityTiers = new ArrayList<>();
+        ConfigurationSection tiers = config.getConfigurationSection("thread.priority-tiers");
+        if (tiers != null) {
+            for (String name : tiers.getKeys(false)) {
+                String permission = tiers.getString(name + ".permission", "wdphelp.priority." + name);
+                priorityTiers.add(new PriorityTier(name, permission,
+                        tiers.getInt(name + ".priority", 1), tiers.getInt(name + ".weight", 1)));
+            }
+        }
+    }
+    
+    /**
+     * Translate all static display strings once so the per-frame and per-line
+     * paths in ChatDisplay only concatenate ready-to-send strings
+     */
+    private void renderDisplayStrings() {
+        renderedHeader = WDPHelpPlugin.translateHexColors(header);
+        renderedFooter = WDPHelpPlugin.translateHexColors(footer);
+        renderedAiPrefix = WDPHelpPlugin.translateHexColors(aiPrefix);
+        renderedAiPrefixStripped = ColorTranslator.stripColors(aiPrefix);
+        renderedThinkingInitial = WDPHelpPlugin.translateHexColors(thinkingInitial.replace("&#AAAAAA● &#FFFFFF", ""));
+        renderedDotsPattern = new String[dotsPattern.length];
+        for (int i = 0; i < dotsPattern.length; i++) {
+            renderedDotsPattern[i] = WDPHelpPlugin.translateHexColors(dotsPattern[i]);
+        }
+        renderedToolPrefix = WDPHelpPlugin.translateHexColors(toolPrefix);
+        renderedToolSuffix = WDPHelpPlugin.translateHexColors(toolSuffix);
+    }
+    
+    /**
+     * Parse an enum constant by name, falling back to a default for invalid values
+     */
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, E fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid " + type.getSimpleName() + " '" + value + "', using " + fallback.name());
+            return fallback;
+        }
     }
     
     /**
-     * Build HTTP headers for API requests
+     * Endpoints from ai.endpoints, or the single ai.base-url / ai.api-key endpoint if none are listed
      */
-    public Map<String, String> buildHeaders() {
+    private List<Endpoint> loadEndpoints(FileConfiguration config) {
+        List<Endpoint> loaded = new ArrayList<>();
+        for (Map<?, ?> entry : config.getMapList("ai.endpoints")) {
+            Object url = entry.get("base-url");
+            if (url == null) {
+                plugin.getLogger().warning("Endpoint without base-url in ai.endpoints, skipping");
+                continue;
+            }
+            Object name = entry.get("name");
+            Object key = entry.get("api-key");
+            Object endpointModel = entry.get("model");
+            Object weight = entry.get("weight");
+            loaded.add(new Endpoint(name != null ? name.toString() : "endpoint-" + (loaded.size() + 1), url.toString(),
+                    key != null ? key.toString() : null, endpointModel != null ? endpointModel.toString() : null,
+                    weight instanceof Number ? ((Number) weight).intValue() : 1));
+        }
+        if (loaded.isEmpty()) {
+            loaded.add(new Endpoint("default", baseUrl, apiKey, null, 1));
+        }
+        return loaded;
+    }
+    
+    /**
+     * Build HTTP headers for requests to an endpoint
+     */
+    public Map<String, String> buildHeaders(Endpoint endpoint) {
         Map<String, String> headers = new HashMap<>();
-        headers.put("Authorization", "Bearer " + apiKey);
+        if (!endpoint.getApiKey().isEmpty()) {
+            headers.put("Authorization", "Bearer " + endpoint.getApiKey());
+        }
         headers.put("Content-Type", "application/json");
         
-        if (openRouterEnabled && baseUrl.contains("openrouter")) {
+        if (openRouterEnabled && endpoint.getBaseUrl().contains("openrouter")) {
             headers.put("HTTP-Referer", siteUrl);
             headers.put("X-Title", siteTitle);
         }
@@ -128,10 +404,15 @@ public class ConfigManager {
     }
     
     /**
-     * Check if API key is configured
+     * Check if at least one endpoint can be used (has an API key or is a local server)
      */
     public boolean isApiKeyConfigured() {
-        return apiKey != null && !apiKey.isEmpty() && !apiKey.equals("YOUR_API_KEY_HERE");
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isUsable()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     // ============ Getters ============
@@ -145,11 +426,40 @@ public class ConfigManager {
     public int getMaxTokens() { return maxTokens; }
     public double getTemperature() { return temperature; }
     public int getTimeout() { return timeout; }
+    public long getConnectTimeoutMillis() { return connectTimeout * 1000L; }
+    public long getFirstTokenTimeoutMillis() { return firstTokenTimeout * 1000L; }
+    public long getIdleTimeoutMillis() { return idleTimeout * 1000L; }
+    
+    public int getConcurrencyInitialLimit() { return concurrencyInitialLimit; }
+    public int getConcurrencyMinLimit() { return concurrencyMinLimit; }
+    public double getConcurrencyBackoffRatio() { return concurrencyBackoffRatio; }
+    public double getConcurrencyLatencyTolerance() { return concurrencyLatencyTolerance; }
+    
+    public int getRateLimitRequestsPerMinute() { return rateLimitRequestsPerMinute; }
+    public int getRateLimitTokensPerMinute() { return rateLimitTokensPerMinute; }
+    public int getRateLimitPlayerRequestsPerMinute() { return rateLimitPlayerRequestsPerMinute; }
+    
+    public boolean isCircuitBreakerEnabled() { return circuitBreakerEnabled; }
+    public int getCircuitBreakerWindowSize() { return circuitBreakerWindowSize; }
+    public int getCircuitBreakerMinCalls() { return circuitBreakerMinCalls; }
+    public double getCircuitBreakerFailureRate() { return circuitBreakerFailureRate; }
+    public long getCircuitBreakerSlowCallMillis() { return circuitBreakerSlowCallMillis; }
+    public double getCircuitBreakerSlowCallRate() { return circuitBreakerSlowCallRate; }
+    public int getCircuitBreakerOpenSeconds() { return circuitBreakerOpenSeconds; }
+    
+    public List<Endpoint> getEndpoints() { return endpoints; }
+    public boolean isHedgingEnabled() { return hedgingEnabled; }
+    public double getHedgingPercentile() { return hedgingPercentile; }
+    public long getHedgingDefaultDelayMillis() { return hedgingDefaultDelayMillis; }
+    public long getHedgingMinDelayMillis() { return hedgingMinDelayMillis; }
     public boolean isStreamEnabled() { return streamEnabled; }
     
     public String getContextDirectory() { return contextDirectory; }
     public int getMaxContextLength() { return maxContextLength; }
     public int getHistoryCount() { return historyCount; }
+    public int getHistoryRelatedTurns() { return historyRelatedTurns; }
+    public double getHistoryMinSimilarity() { return historyMinSimilarity; }
+    public int getHistorySummaryTopics() { return historySummaryTopics; }
     public int getSuggestHelpAfter() { return suggestHelpAfter; }
     public int getRelevanceThreshold() { return relevanceThreshold; }
     
@@ -157,12 +467,64 @@ public class ConfigManager {
     public String getFooter() { return footer; }
     public String getAiPrefix() { return aiPrefix; }
     public String getThinkingInitial() { return thinkingInitial; }
+    public ThinkingMode getThinkingMode() { return thinkingMode; }
+    public BarColor getBossBarColor() { return bossBarColor; }
+    public BarStyle getBossBarStyle() { return bossBarStyle; }
     public String[] getDotsPattern() { return dotsPattern; }
     public int getAnimationSpeed() { return animationSpeed; }
     public int getMessageDelay() { return messageDelay; }
     public int getMessageInterval() { return messageInterval; }
     public String getToolPrefix() { return toolPrefix; }
     public String getToolSuffix() { return toolSuffix; }
+    public int getOutputLinesPerTick() { return outputLinesPerTick; }
+    public int getOutputLinesPerPlayerPerTick() { return outputLinesPerPlayerPerTick; }
+    public boolean isPaginationEnabled() { return paginationEnabled; }
+    public int getLinesPerPage() { return linesPerPage; }
+    
+    public int getCompletionMaxSuggestions() { return completionMaxSuggestions; }
+    public int getCompletionPopularQuestions() { return completionPopularQuestions; }
+    public int getCompletionRebuildInterval() { return completionRebuildInterval; }
+    
+    public String getRenderedHeader() { return renderedHeader; }
+    public String getRenderedFooter() { return renderedFooter; }
+    public String getRenderedAiPrefix() { return renderedAiPrefix; }
+    public String getRenderedAiPrefixStripped() { return renderedAiPrefixStripped; }
+    public String getRenderedThinkingInitial() { return renderedThinkingInitial; }
+    public String[] getRenderedDotsPattern() { return renderedDotsPattern; }
+    public String getRenderedToolPrefix() { return renderedToolPrefix; }
+    public String getRenderedToolSuffix() { return renderedToolSuffix; }
+    
+    public int getQuestionMaxDistance() { return questionMaxDistance; }
+    public List<String> getQuestionStopWords() { return questionStopWords; }
+    public Map<String, String> getQuestionSynonyms() { return questionSynonyms; }
+    
+    public boolean isRelevanceFilterEnabled() { return relevanceFilterEnabled; }
+    public double getRelevanceFullModelScore() { return relevanceFullModelScore; }
+    public double getRelevanceRejectBelow() { return relevanceRejectBelow; }
+    public List<String> getRelevanceGameWords() { return relevanceGameWords; }
+    public List<String> getRelevanceOffTopicWords() { return relevanceOffTopicWords; }
+    
+    /**
+     * Model for borderline questions (the main model if none is set)
+     */
+    public String getRelevanceBorderlineModel() {
+        return relevanceBorderlineModel == null || relevanceBorderlineModel.isBlank() ? model : relevanceBorderlineModel;
+    }
+    
+    public boolean isFaqEnabled() { return faqEnabled; }
+    public String getFaqDirectory() { return faqDirectory; }
+    public int getFaqMaxDistance() { return faqMaxDistance; }
+    
+    public boolean isCacheEnabled() { return cacheEnabled; }
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public long getCacheTtlMillis() { return cacheTtlMinutes * 60_000L; }
+    public boolean isCachePersistEnabled() { return cachePersistEnabled; }
+    public boolean isCacheWarmupEnabled() { return cacheWarmupEnabled; }
+    public int getCacheWarmupQuestions() { return cacheWarmupQuestions; }
+    public int getCacheWarmupConcurrency() { return cacheWarmupConcurrency; }
+    
+    public int getStatsCapacity() { return statsCapacity; }
+    public int getStatsSaveInterval() { return statsSaveInterval; }
     
     public boolean isDebugEnabled() { return debugEnabled; }
     public boolean isLogRequests() { return logRequests; }
@@ -171,4 +533,6 @@ public class ConfigManager {
     public boolean isThreadWarningEnabled() { return threadWarningEnabled; }
     public int getMaxThreads() { return maxThreads; }
     public int getThreadQueueSize() { return threadQueueSize; }
+    public int getQueueUsageHalfLife() { return queueUsageHalfLife; }
+    public List<PriorityTier> getPriorityTiers() { return priorityTiers; }
 }
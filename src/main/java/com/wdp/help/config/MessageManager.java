@@ -8,7 +8,10 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Message manager for WDP-Help
@@ -20,9 +23,10 @@ public class MessageManager {
     private FileConfiguration messages;
     private File messagesFile;
     
-    // Cached values
+    // Cached values (color codes already translated)
     private String prefix;
     private List<String> thinkingMessages;
+    private Map<String, String> rendered;
     
     public MessageManager(WDPHelpPlugin plugin) {
         this.plugin = plugin;
@@ -42,18 +46,43 @@ public class MessageManager {
         messages = YamlConfiguration.loadConfiguration(messagesFile);
         
         // Load default values from plugin resources
+        YamlConfiguration defaultConfig = null;
         InputStream defaultStream = plugin.getResource("messages.yml");
         if (defaultStream != null) {
-            YamlConfiguration defaultConfig = YamlConfiguration.loadConfiguration(new InputStreamReader(defaultStream));
+            defaultConfig = YamlConfiguration.loadConfiguration(new InputStreamReader(defaultStream));
             messages.setDefaults(defaultConfig);
         }
         
+        // Translate every string message once (defaults first, file values override)
+        Map<String, String> translated = new HashMap<>();
+        if (defaultConfig != null) {
+            renderStrings(defaultConfig, translated);
+        }
+        renderStrings(messages, translated);
+        rendered = translated;
+        
         // Cache commonly used values
-        prefix = messages.getString("prefix", "&#FFD700[Help]&#FFFFFF ");
-        thinkingMessages = messages.getStringList("thinking-messages");
-        if (thinkingMessages.isEmpty()) {
-            thinkingMessages = new ArrayList<>();
-            thinkingMessages.add("&#AAAAAAThinking...");
+        prefix = WDPHelpPlugin.translateHexColors(messages.getString("prefix", "&#FFD700[Help]&#FFFFFF "));
+        List<String> rawThinking = messages.getStringList("thinking-messages");
+        if (rawThinking.isEmpty()) {
+            rawThinking = new ArrayList<>();
+            rawThinking.add("&#AAAAAAThinking...");
+        }
+        List<String> translatedThinking = new ArrayList<>(rawThinking.size());
+        for (String msg : rawThinking) {
+            translatedThinking.add(WDPHelpPlugin.translateHexColors(msg));
+        }
+        thinkingMessages = Collections.unmodifiableList(translatedThinking);
+    }
+    
+    /**
+     * Translate all string values of a configuration into the given map
+     */
+    private void renderStrings(FileConfiguration source, Map<String, String> target) {
+        for (String key : source.getKeys(true)) {
+            if (source.isString(key)) {
+                target.put(key, WDPHelpPlugin.translateHexColors(source.getString(key)));
+            }
         }
     }
     
@@ -65,11 +94,14 @@ public class MessageManager {
     }
     
     /**
-     * Get a message by key
+     * Get a message by key (pre-translated at load time)
      */
     public String get(String key) {
-        String message = messages.getString(key, "Message not found: " + key);
-        return WDPHelpPlugin.translateHexColors(message);
+        String message = rendered.get(key);
+        if (message != null) {
+            return message;
+        }
+        return WDPHelpPlugin.translateHexColors(messages.getString(key, "Message not found: " + key));
     }
     
     /**
@@ -107,42 +139,35 @@ public class MessageManager {
      * Get message with prefix
      */
     public String getPrefixed(String key) {
-        return WDPHelpPlugin.translateHexColors(prefix) + get(key);
+        return prefix + get(key);
     }
     
     /**
      * Get message with prefix and placeholders
      */
     public String getPrefixed(String key, Object... replacements) {
-        return WDPHelpPlugin.translateHexColors(prefix) + get(key, replacements);
+        return prefix + get(key, replacements);
     }
     
     /**
      * Get the prefix
      */
     public String getPrefix() {
-        return WDPHelpPlugin.translateHexColors(prefix);
+        return prefix;
     }
     
     /**
-     * Get thinking messages list
+     * Get thinking messages list (translated, unmodifiable)
      */
     public List<String> getThinkingMessages() {
-        List<String> translated = new ArrayList<>();
-        for (String msg : thinkingMessages) {
-            translated.add(WDPHelpPlugin.translateHexColors(msg));
-        }
-        return translated;
+        return thinkingMessages;
     }
     
     /**
      * Get a random thinking message
      */
     public String getRandomThinkingMessage() {
-        if (thinkingMessages.isEmpty()) {
-            return WDPHelpPlugin.translateHexColors("&#AAAAAAThinking...");
-        }
         int index = (int) (Math.random() * thinkingMessages.size());
-        return WDPHelpPlugin.translateHexColors(thinkingMessages.get(index));
+        return thinkingMessages.get(index);
     }
 }
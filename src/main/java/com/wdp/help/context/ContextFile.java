@@ -11,6 +11,7 @@ public class ContextFile {
     private final boolean includedByDefault;
     private final int priority;
     private final String description;
+    private final long contentHash;
     
     public ContextFile(String name, String title, String content, boolean includedByDefault, int priority, String description) {
         this.name = name;
@@ -19,6 +20,7 @@ public class ContextFile {
         this.includedByDefault = includedByDefault;
         this.priority = priority;
         this.description = description;
+        this.contentHash = hash(name + '\0' + title + '\0' + includedByDefault + '\0' + priority + '\0' + content);
     }
     
     /**
@@ -63,6 +65,25 @@ public class ContextFile {
         return description;
     }
     
+    /**
+     * Get a 64-bit hash of everything the AI sees from this file
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+    
+    /**
+     * 64-bit FNV-1a hash of a string
+     */
+    public static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
     @Override
     public String toString() {
         return "ContextFile{name='" + name + "', title='" + title + "', default=" + includedByDefault + ", priority=" + priority + "}";
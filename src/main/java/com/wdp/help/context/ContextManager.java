@@ -165,6 +165,19 @@ public class ContextManager {
         return contextFiles.get(name);
     }
     
+    /**
+     * Get a hash over the names of the files included by default
+     */
+    public long getDefaultSetHash() {
+        StringBuilder combined = new StringBuilder();
+        contextFiles.values().stream()
+                .filter(ContextFile::isIncludedByDefault)
+                .map(ContextFile::getName)
+                .sorted()
+                .forEach(name -> combined.append(name).append(';'));
+        return ContextFile.hash(combined.toString());
+    }
+    
     /**
      * Get combined context content for default files
      */
@@ -10,7 +10,6 @@ public class HelpAnswer {
     private final String shortDescription;
     private final String title;
     private final long timestamp;
-    private final int questionHash; // Hash of normalized question for duplicate detection
     
     public HelpAnswer(String question, String answer, String shortDescription, String title, long timestamp) {
         this.question = question;
@@ -18,14 +17,6 @@ public class HelpAnswer {
         this.shortDescription = shortDescription;
         this.title = title;
         this.timestamp = timestamp;
-        this.questionHash = normalizeQuestion(question).hashCode();
-    }
-    
-    /**
-     * Normalize question for duplicate detection (lowercase, trim, remove extra spaces)
-     */
-    private String normalizeQuestion(String q) {
-        return q.toLowerCase().trim().replaceAll("\\s+", " ");
     }
     
     public String getQuestion() {
@@ -48,17 +39,6 @@ public class HelpAnswer {
         return timestamp;
     }
     
-    public int getQuestionHash() {
-        return questionHash;
-    }
-    
-    /**
-     * Check if this answer is for the same question
-     */
-    public boolean isSameQuestion(String otherQuestion) {
-        return this.questionHash == normalizeQuestion(otherQuestion).hashCode();
-    }
-    
     @Override
     public String toString() {
         return "HelpAnswer{title='" + title + "', question='" + question + "'}";
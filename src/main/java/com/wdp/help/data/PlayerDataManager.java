@@ -13,6 +13,7 @@ import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages player help data (recent questions, conversation history)
@@ -28,7 +29,7 @@ public class PlayerDataManager {
         this.plugin = plugin;
         this.gson = new GsonBuilder().setPrettyPrinting().create();
         this.dataFile = new File(plugin.getDataFolder(), "player_data.json");
-        this.playerData = new HashMap<>();
+        this.playerData = new ConcurrentHashMap<>();
         
         loadData();
     }
@@ -94,29 +95,47 @@ public class PlayerDataManager {
     
     /**
      * Add an answer to player's history
+     * @return the saved answer
      */
-    public void addAnswer(UUID uuid, String question, String answer, String shortDescription, String title) {
+    public HelpAnswer addAnswer(UUID uuid, String question, String answer, String shortDescription, String title) {
         PlayerHelpData data = getData(uuid);
         
         // Create new answer
         HelpAnswer helpAnswer = new HelpAnswer(question, answer, shortDescription, title, System.currentTimeMillis());
         
         // Add to history (will automatically maintain max size)
-        data.addAnswer(helpAnswer, plugin.getConfigManager().getHistoryCount());
+        data.addAnswer(helpAnswer, plugin.getConfigManager().getHistoryCount(), plugin.getConfigManager().getHistorySummaryTopics());
         
         // Track question frequency
-        data.incrementQuestionCount(question.toLowerCase().trim());
+        data.incrementQuestionCount(question.toLowerCase().trim(), plugin.getCanonicalizer());
+        
+        // History changed, so the cached /help menu is stale
+        plugin.getMenuCache().invalidate(uuid);
         
         // Save data periodically (could be async in production)
         saveAll();
+        
+        return helpAnswer;
     }
     
     /**
-     * Check if player has asked similar question multiple times
+     * Count how often a player asked this question or a near-duplicate of it
      */
     public int getQuestionCount(UUID uuid, String question) {
-        PlayerHelpData data = getData(uuid);
-        return data.getQuestionCount(question.toLowerCase().trim());
+        return getData(uuid).getSimilarQuestionCount(question.toLowerCase().trim(), plugin.getCanonicalizer());
+    }
+    
+    /**
+     * Sum question counts over all players (safe to call off the main thread)
+     */
+    public Map<String, Integer> getQuestionTotals() {
+        Map<String, Integer> totals = new HashMap<>();
+        for (PlayerHelpData data : playerData.values()) {
+            for (Map.Entry<String, Integer> entry : data.getQuestionCounts().entrySet()) {
+                totals.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+        return totals;
     }
     
     /**
@@ -1,6 +1,9 @@
 package com.wdp.help.data;
 
+import com.wdp.help.question.QuestionCanonicalizer;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,23 +15,32 @@ public class PlayerHelpData {
     
     private List<HelpAnswer> recentAnswers;
     private Map<String, Integer> questionCounts;
+    // Rolling summary: titles of everything the player asked about (most recent first)
+    private List<String> summaryTopics;
+    
+    // Fingerprints of the counted questions, built on first use and kept in step (not saved)
+    private transient String[] fingerprintedQuestions;
+    private transient long[] questionFingerprints;
+    private transient int fingerprintCount;
+    private transient int fingerprintGeneration = -1;
     
     public PlayerHelpData() {
         this.recentAnswers = new ArrayList<>();
         this.questionCounts = new HashMap<>();
+        this.summaryTopics = new ArrayList<>();
     }
     
     /**
      * Get recent answers (most recent first)
      */
-    public List<HelpAnswer> getRecentAnswers() {
+    public synchronized List<HelpAnswer> getRecentAnswers() {
         return new ArrayList<>(recentAnswers);
     }
     
     /**
-     * Add an answer, maintaining max size
+     * Add an answer, maintaining max size, and fold its topic into the summary
      */
-    public void addAnswer(HelpAnswer answer, int maxSize) {
+    public synchronized void addAnswer(HelpAnswer answer, int maxSize, int maxSummaryTopics) {
         // Add to front (most recent first)
         recentAnswers.add(0, answer);
         
@@ -36,27 +48,99 @@ public class PlayerHelpData {
         while (recentAnswers.size() > maxSize) {
             recentAnswers.remove(recentAnswers.size() - 1);
         }
+        
+        // Move the topic to the front of the summary, oldest topics fall off
+        if (summaryTopics == null) {
+            summaryTopics = new ArrayList<>();
+        }
+        String topic = answer.getTitle();
+        if (topic != null && !topic.isBlank()) {
+            summaryTopics.removeIf(existing -> existing.equalsIgnoreCase(topic));
+            summaryTopics.add(0, topic);
+        }
+        while (summaryTopics.size() > maxSummaryTopics) {
+            summaryTopics.remove(summaryTopics.size() - 1);
+        }
+    }
+    
+    /**
+     * Get the rolling summary topics (most recent first)
+     */
+    public synchronized List<String> getSummaryTopics() {
+        return summaryTopics == null ? new ArrayList<>() : new ArrayList<>(summaryTopics);
     }
     
     /**
      * Get question count
      */
-    public int getQuestionCount(String normalizedQuestion) {
+    public synchronized int getQuestionCount(String normalizedQuestion) {
         return questionCounts.getOrDefault(normalizedQuestion, 0);
     }
     
+    /**
+     * Count this question and its near-duplicates
+     * Only the new question is fingerprinted; the counted ones were fingerprinted
+     * once (again after the question settings are reloaded).
+     */
+    public synchronized int getSimilarQuestionCount(String normalizedQuestion, QuestionCanonicalizer canonicalizer) {
+        long fingerprint = canonicalizer.fingerprint(normalizedQuestion);
+        ensureFingerprints(canonicalizer);
+        
+        int count = 0;
+        for (int i = 0; i < fingerprintCount; i++) {
+            if (canonicalizer.isSimilar(fingerprint, questionFingerprints[i])) {
+                count += questionCounts.get(fingerprintedQuestions[i]);
+            }
+        }
+        return count;
+    }
+    
     /**
      * Increment question count
      */
-    public void incrementQuestionCount(String normalizedQuestion) {
-        int current = questionCounts.getOrDefault(normalizedQuestion, 0);
-        questionCounts.put(normalizedQuestion, current + 1);
+    public synchronized void incrementQuestionCount(String normalizedQuestion, QuestionCanonicalizer canonicalizer) {
+        Integer current = questionCounts.put(normalizedQuestion, questionCounts.getOrDefault(normalizedQuestion, 0) + 1);
+        if (current == null && fingerprintGeneration == canonicalizer.getGeneration()) {
+            addFingerprint(normalizedQuestion, canonicalizer.fingerprint(normalizedQuestion));
+        }
+    }
+    
+    private void ensureFingerprints(QuestionCanonicalizer canonicalizer) {
+        int generation = canonicalizer.getGeneration();
+        if (fingerprintGeneration == generation) {
+            return;
+        }
+        
+        fingerprintedQuestions = new String[Math.max(8, questionCounts.size())];
+        questionFingerprints = new long[fingerprintedQuestions.length];
+        fingerprintCount = 0;
+        for (String question : questionCounts.keySet()) {
+            addFingerprint(question, canonicalizer.fingerprint(question));
+        }
+        fingerprintGeneration = generation;
+    }
+    
+    private void addFingerprint(String question, long fingerprint) {
+        if (fingerprintCount == questionFingerprints.length) {
+            fingerprintedQuestions = Arrays.copyOf(fingerprintedQuestions, fingerprintCount * 2);
+            questionFingerprints = Arrays.copyOf(questionFingerprints, fingerprintCount * 2);
+        }
+        fingerprintedQuestions[fingerprintCount] = question;
+        questionFingerprints[fingerprintCount] = fingerprint;
+        fingerprintCount++;
+    }
+    
+    /**
+     * Get a copy of all question counts
+     */
+    public synchronized Map<String, Integer> getQuestionCounts() {
+        return new HashMap<>(questionCounts);
     }
     
     /**
      * Check if player has any recent answers
      */
-    public boolean hasRecentAnswers() {
+    public synchronized boolean hasRecentAnswers() {
         return !recentAnswers.isEmpty();
     }
 }
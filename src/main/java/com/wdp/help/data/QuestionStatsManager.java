@@ -0,0 +1,157 @@
+package com.wdp.help.data;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.metrics.HeavyHitters;
+import com.wdp.help.scheduler.TaskHandle;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Server-wide statistics of asked questions
+ * Keeps the most asked normalized questions across all players in a
+ * constant-size {@link HeavyHitters} tracker, saved to question_stats.json
+ * periodically and on shutdown.
+ */
+public class QuestionStatsManager {
+    
+    private final WDPHelpPlugin plugin;
+    private final Gson gson;
+    private final File dataFile;
+    private final HeavyHitters questions;
+    private TaskHandle saveTask;
+    
+    public QuestionStatsManager(WDPHelpPlugin plugin) {
+        this.plugin = plugin;
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.dataFile = new File(plugin.getDataFolder(), "question_stats.json");
+        this.questions = new HeavyHitters(plugin.getConfigManager().getStatsCapacity());
+        
+        loadData();
+    }
+    
+    /**
+     * Load saved stats, or seed them from player question counts on first run
+     */
+    private void loadData() {
+        if (!dataFile.exists()) {
+            for (Map.Entry<String, Integer> entry : plugin.getPlayerDataManager().getQuestionTotals().entrySet()) {
+                questions.add(normalize(entry.getKey()), entry.getValue(), 0);
+            }
+            return;
+        }
+        
+        try (FileReader reader = new FileReader(dataFile)) {
+            SavedStats saved = gson.fromJson(reader, SavedStats.class);
+            if (saved != null && saved.questions != null) {
+                questions.restore(saved.total, saved.questions);
+            }
+            
+            if (plugin.getConfigManager().isDebugEnabled()) {
+                plugin.getLogger().info("Loaded stats for " + questions.size() + " questions.");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load question stats: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Start saving periodically (restarts with the current interval)
+     */
+    public void start() {
+        stop();
+        
+        int minutes = plugin.getConfigManager().getStatsSaveInterval();
+        if (minutes > 0) {
+            long period = minutes * 60L * 20L;
+            saveTask = plugin.getTaskScheduler().runGlobalTimer(this::saveAsync, period, period);
+        }
+    }
+    
+    /**
+     * Stop saving periodically
+     */
+    public void stop() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+    }
+    
+    /**
+     * Count a question asked by any player
+     */
+    public void record(String question) {
+        String normalized = normalize(question);
+        if (!normalized.isEmpty()) {
+            questions.offer(normalized);
+        }
+    }
+    
+    /**
+     * Get the most asked questions, highest count first
+     */
+    public List<HeavyHitters.Entry> getTop(int limit) {
+        return questions.top(limit);
+    }
+    
+    /**
+     * Total questions counted
+     */
+    public long getTotal() {
+        return questions.getTotal();
+    }
+    
+    /**
+     * Save a snapshot in the background
+     */
+    public void saveAsync() {
+        SavedStats snapshot = snapshot();
+        CompletableFuture.runAsync(() -> write(snapshot));
+    }
+    
+    /**
+     * Save on the calling thread (used on shutdown)
+     */
+    public void save() {
+        write(snapshot());
+    }
+    
+    private SavedStats snapshot() {
+        SavedStats stats = new SavedStats();
+        stats.total = questions.getTotal();
+        stats.questions = new ArrayList<>(questions.top(questions.getCapacity()));
+        return stats;
+    }
+    
+    private synchronized void write(SavedStats stats) {
+        try (FileWriter writer = new FileWriter(dataFile)) {
+            gson.toJson(stats, writer);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save question stats: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Normalize a question (lowercase, trim, remove extra spaces)
+     */
+    public static String normalize(String question) {
+        return question.toLowerCase().trim().replaceAll("\\s+", " ");
+    }
+    
+    /**
+     * JSON layout of question_stats.json
+     */
+    private static class SavedStats {
+        private long total;
+        private List<HeavyHitters.Entry> questions;
+    }
+}
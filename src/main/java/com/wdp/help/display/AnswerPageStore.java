@@ -0,0 +1,86 @@
+package com.wdp.help.display;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player page state
+ * Tracks the answer a player is currently paging through and keeps the
+ * pages of history answers so re-opening one from /help reuses them.
+ */
+public class AnswerPageStore {
+    
+    private static final int MAX_CACHED_PER_PLAYER = 10;
+    
+    private final Map<UUID, AnswerPages> active;
+    private final Map<UUID, Map<Long, AnswerPages>> byAnswer;
+    
+    public AnswerPageStore() {
+        this.active = new ConcurrentHashMap<>();
+        this.byAnswer = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Set the answer a player is currently paging through
+     */
+    public void setActive(UUID uuid, AnswerPages pages) {
+        active.put(uuid, pages);
+    }
+    
+    /**
+     * Get the answer a player is currently paging through
+     */
+    public AnswerPages getActive(UUID uuid) {
+        return active.get(uuid);
+    }
+    
+    /**
+     * Remember the pages of a saved answer (keyed by its timestamp)
+     */
+    public void putForAnswer(UUID uuid, long answerTimestamp, AnswerPages pages) {
+        Map<Long, AnswerPages> cache = byAnswer.computeIfAbsent(uuid, k -> createPlayerCache());
+        synchronized (cache) {
+            cache.put(answerTimestamp, pages);
+        }
+    }
+    
+    /**
+     * Get the cached pages of a saved answer, or null
+     */
+    public AnswerPages getForAnswer(UUID uuid, long answerTimestamp) {
+        Map<Long, AnswerPages> cache = byAnswer.get(uuid);
+        if (cache == null) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(answerTimestamp);
+        }
+    }
+    
+    /**
+     * Forget everything for a player
+     */
+    public void clear(UUID uuid) {
+        active.remove(uuid);
+        byAnswer.remove(uuid);
+    }
+    
+    /**
+     * Forget everything (e.g. after a reload changed wrapping or colors)
+     */
+    public void clearAll() {
+        active.clear();
+        byAnswer.clear();
+    }
+    
+    private Map<Long, AnswerPages> createPlayerCache() {
+        return new LinkedHashMap<Long, AnswerPages>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AnswerPages> eldest) {
+                return size() > MAX_CACHED_PER_PLAYER;
+            }
+        };
+    }
+}
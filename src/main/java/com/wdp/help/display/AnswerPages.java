@@ -0,0 +1,63 @@
+package com.wdp.help.display;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A wrapped answer split into pages
+ * Only the wrapped text is kept up front; chat components for a page are
+ * built the first time that page is shown and then reused.
+ */
+public class AnswerPages {
+    
+    private final List<String> lines;
+    private final int linesPerPage;
+    private final List<BaseComponent[]>[] rendered;
+    
+    @SuppressWarnings("unchecked")
+    public AnswerPages(List<String> wrappedLines, int linesPerPage) {
+        this.lines = Collections.unmodifiableList(new ArrayList<>(wrappedLines));
+        this.linesPerPage = Math.max(1, linesPerPage);
+        this.rendered = new List[getPageCount()];
+    }
+    
+    /**
+     * Get the number of pages (at least one)
+     */
+    public int getPageCount() {
+        return Math.max(1, (lines.size() + linesPerPage - 1) / linesPerPage);
+    }
+    
+    /**
+     * Get the wrapped text lines of a page (0-based)
+     */
+    public List<String> getPageLines(int page) {
+        int from = Math.min(page * linesPerPage, lines.size());
+        int to = Math.min(from + linesPerPage, lines.size());
+        return lines.subList(from, to);
+    }
+    
+    /**
+     * Get the chat components of a page (0-based), rendering it on first use
+     */
+    public synchronized List<BaseComponent[]> renderPage(int page, AnswerRenderer renderer) {
+        if (rendered[page] == null) {
+            List<BaseComponent[]> components = new ArrayList<>();
+            for (String line : getPageLines(page)) {
+                components.add(renderer.renderLine(line));
+            }
+            rendered[page] = Collections.unmodifiableList(components);
+        }
+        return rendered[page];
+    }
+    
+    /**
+     * Store components that were already rendered while streaming
+     */
+    public synchronized void putRendered(int page, List<BaseComponent[]> components) {
+        rendered[page] = Collections.unmodifiableList(new ArrayList<>(components));
+    }
+}
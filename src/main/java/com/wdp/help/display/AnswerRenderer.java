@@ -0,0 +1,159 @@
+package com.wdp.help.display;
+
+import com.wdp.help.config.ConfigManager;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns AI answer text into ready-to-send chat component lines
+ * Pure string/component work with no Bukkit calls, so it is safe to run on
+ * the AI worker thread; the main thread only has to send the result.
+ */
+public class AnswerRenderer {
+    
+    public static final int MAX_LINE_LENGTH = 50; // Max chars per line for wrapping
+    private static final Pattern COMMAND_PATTERN = Pattern.compile("(/[a-zA-Z0-9_]+(?:\\s+[a-zA-Z0-9_]+)?)"); // Matches /command or /command arg
+    private static final BaseComponent[] EMPTY_LINE = new BaseComponent[]{new TextComponent("")};
+    
+    private final ConfigManager config;
+    
+    public AnswerRenderer(ConfigManager config) {
+        this.config = config;
+    }
+    
+    /**
+     * Render answer text into chat lines (split on escaped newlines, wrapped, commands clickable)
+     */
+    public List<BaseComponent[]> render(String text) {
+        List<BaseComponent[]> rendered = new ArrayList<>();
+        for (String wrappedLine : wrap(text)) {
+            rendered.add(renderLine(wrappedLine));
+        }
+        return rendered;
+    }
+    
+    /**
+     * Split answer text on escaped newlines and word wrap it, without building components
+     */
+    public List<String> wrap(String text) {
+        List<String> wrapped = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return wrapped;
+        }
+        
+        // Handle newlines first - split by escaped newlines from the model
+        for (String line : text.split("\\\\n")) {
+            wrapped.addAll(wrapParagraph(line));
+        }
+        
+        return wrapped;
+    }
+    
+    /**
+     * Word wrap a single paragraph (text between escaped newlines)
+     */
+    public List<String> wrapParagraph(String paragraph) {
+        // Prepend white color code to maintain text color across newlines
+        return wordWrap("§f" + paragraph, MAX_LINE_LENGTH);
+    }
+    
+    /**
+     * Render a single already-wrapped line with clickable commands and color codes
+     */
+    public BaseComponent[] renderLine(String text) {
+        if (text.isEmpty()) {
+            // Empty line - send blank for spacing
+            return EMPTY_LINE;
+        }
+        
+        String prefix = config.getRenderedAiPrefixStripped();
+        Matcher matcher = COMMAND_PATTERN.matcher(text);
+        
+        if (!matcher.find()) {
+            // No commands found, plain colored line
+            return TextComponent.fromLegacyText(prefix + ColorTranslator.translateSections(text));
+        }
+        
+        // Build clickable text component
+        matcher.reset();
+        TextComponent message = new TextComponent(prefix);
+        
+        int lastEnd = 0;
+        while (matcher.find()) {
+            // Add text before command (with colors)
+            if (matcher.start() > lastEnd) {
+                String beforeText = text.substring(lastEnd, matcher.start());
+                message.addExtra(new TextComponent(ColorTranslator.translateSections(beforeText)));
+            }
+            
+            // Add clickable command
+            String command = matcher.group(1);
+            TextComponent commandComponent = new TextComponent(command);
+            commandComponent.setColor(net.md_5.bungee.api.ChatColor.YELLOW);
+            commandComponent.setBold(true);
+            commandComponent.setClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, command));
+            commandComponent.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                new Text("Click to use: " + command)));
+            
+            message.addExtra(commandComponent);
+            lastEnd = matcher.end();
+        }
+        
+        // Add remaining text (with colors)
+        if (lastEnd < text.length()) {
+            String remainingText = text.substring(lastEnd);
+            message.addExtra(new TextComponent(ColorTranslator.translateSections(remainingText)));
+        }
+        
+        return new BaseComponent[]{message};
+    }
+    
+    /**
+     * Word wrap text to specified width
+     */
+    public static List<String> wordWrap(String text, int maxWidth) {
+        List<String> lines = new ArrayList<>();
+        
+        // Split by existing newlines first
+        String[] paragraphs = text.split("\n");
+        
+        for (String paragraph : paragraphs) {
+            if (paragraph.trim().isEmpty()) {
+                lines.add("");
+                continue;
+            }
+            
+            // Wrap long lines
+            String[] words = paragraph.split(" ");
+            StringBuilder currentLine = new StringBuilder();
+            
+            for (String word : words) {
+                if (currentLine.length() + word.length() + 1 > maxWidth) {
+                    if (currentLine.length() > 0) {
+                        lines.add(currentLine.toString().trim());
+                        currentLine = new StringBuilder();
+                    }
+                }
+                
+                if (currentLine.length() > 0) {
+                    currentLine.append(" ");
+                }
+                currentLine.append(word);
+            }
+            
+            if (currentLine.length() > 0) {
+                lines.add(currentLine.toString().trim());
+            }
+        }
+        
+        return lines;
+    }
+}
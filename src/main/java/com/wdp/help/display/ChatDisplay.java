@@ -3,29 +3,36 @@ package com.wdp.help.display;
 import com.wdp.help.WDPHelpPlugin;
 import com.wdp.help.config.ConfigManager;
 import com.wdp.help.config.MessageManager;
+import com.wdp.help.scheduler.TaskHandle;
+import com.wdp.help.scheduler.TaskScheduler;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.ClickEvent;
 import net.md_5.bungee.api.chat.HoverEvent;
 import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.chat.hover.content.Text;
 import org.bukkit.Bukkit;
+import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handles the chat display for AI responses
  * Features:
- * - Live streaming text display
- * - Animated thinking indicator
+ * - Live streaming text display, coalesced into whole lines at most once per tick
+ * - Animated thinking indicator (chat, action bar or boss bar)
  * - Rotating waiting messages
  * - Tool usage display
+ * - Paginated answers with clickable page controls
  * - Clean scrolling view
  */
 public class ChatDisplay {
@@ -35,17 +42,30 @@ public class ChatDisplay {
     private final ConfigManager config;
     private final MessageManager messages;
     private final Random random;
+    private final ThinkingMode thinkingMode;
+    private final AnswerRenderer renderer;
+    private final ChatOutputScheduler output;
+    private final TaskScheduler scheduler;
+    private final StreamingLineAssembler assembler;
     
     // Display state
     private final StringBuilder currentText;
-    private final List<String> displayedLines;
+    private final List<String> displayedLines; // All wrapped answer lines
+    private final List<BaseComponent[]> firstPage;
+    private AnswerPages pages;
     private boolean isThinking;
     private boolean hasStartedReceiving;
     private String lastThinkingMessage;
+    private volatile int queuePosition;
+    
+    // Stream flushing
+    private final AtomicBoolean flushPending;
+    private volatile long lastFlushNanos;
     
     // Animation tasks
-    private BukkitTask thinkingTask;
-    private BukkitTask messageRotationTask;
+    private TaskHandle thinkingTask;
+    private TaskHandle messageRotationTask;
+    private BossBar bossBar;
     
     // Animation state
     private final AtomicInteger dotPosition;
@@ -54,8 +74,10 @@ public class ChatDisplay {
     
     // Display constants
     private static final int CLEAR_LINES = 15; // Lines of blank space above content
-    private static final int MAX_LINE_LENGTH = 50; // Max chars per line for wrapping
-    private static final Pattern COMMAND_PATTERN = Pattern.compile("(/[a-zA-Z0-9_]+(?:\\s+[a-zA-Z0-9_]+)?)"); // Matches /command or /command arg
+    private static final BaseComponent[] BLANK_LINE = new BaseComponent[]{new TextComponent("")};
+    private static final long TICK_MILLIS = 50L;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    private static final Executor FLUSH_EXECUTOR = CompletableFuture.delayedExecutor(TICK_MILLIS, TimeUnit.MILLISECONDS);
     
     public ChatDisplay(WDPHelpPlugin plugin, Player player) {
         this.plugin = plugin;
@@ -63,12 +85,20 @@ public class ChatDisplay {
         this.config = plugin.getConfigManager();
         this.messages = plugin.getMessageManager();
         this.random = new Random();
+        this.thinkingMode = config.getThinkingMode();
+        this.renderer = new AnswerRenderer(config);
+        this.output = plugin.getOutputScheduler();
+        this.scheduler = plugin.getTaskScheduler();
+        this.assembler = new StreamingLineAssembler(renderer);
         
         this.currentText = new StringBuilder();
         this.displayedLines = new ArrayList<>();
+        this.firstPage = new ArrayList<>();
         this.isThinking = false;
         this.hasStartedReceiving = false;
         this.lastThinkingMessage = "";
+        this.flushPending = new AtomicBoolean(false);
+        this.lastFlushNanos = 0L;
         
         this.dotPosition = new AtomicInteger(0);
         this.messageIndex = new AtomicInteger(0);
@@ -79,18 +109,31 @@ public class ChatDisplay {
      * Show the header
      */
     public void showHeader() {
-        player.sendMessage("");
-        player.sendMessage(WDPHelpPlugin.translateHexColors(config.getHeader()));
-        player.sendMessage("");
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(BLANK_LINE);
+        lines.add(TextComponent.fromLegacyText(config.getRenderedHeader()));
+        lines.add(BLANK_LINE);
+        sendLines(lines);
     }
     
     /**
      * Show the footer
      */
     public void showFooter() {
-        player.sendMessage("");
-        player.sendMessage(WDPHelpPlugin.translateHexColors(config.getFooter()));
-        player.sendMessage("");
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(BLANK_LINE);
+        lines.add(TextComponent.fromLegacyText(config.getRenderedFooter()));
+        lines.add(BLANK_LINE);
+        sendLines(lines);
+    }
+    
+    /**
+     * Show an already translated error message
+     */
+    public void showError(String message) {
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(TextComponent.fromLegacyText(message));
+        sendLines(lines);
     }
     
     /**
@@ -104,7 +147,7 @@ public class ChatDisplay {
         sendThinkingLine();
         
         // Start dot animation
-        thinkingTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        thinkingTask = scheduler.runForPlayerTimer(player, () -> {
             if (!isThinking || hasStartedReceiving) {
                 return;
             }
@@ -120,7 +163,7 @@ public class ChatDisplay {
         int delayTicks = config.getMessageDelay() * 20;
         int intervalTicks = config.getMessageInterval() * 20;
         
-        messageRotationTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        messageRotationTask = scheduler.runForPlayerTimer(player, () -> {
             if (!isThinking || hasStartedReceiving) {
                 return;
             }
@@ -140,50 +183,87 @@ public class ChatDisplay {
     }
     
     /**
-     * Send the current thinking line (clear screen each frame for smooth animation)
+     * Send the current thinking frame using the configured thinking mode
      */
     private void sendThinkingLine() {
         if (!isThinking || player == null || !player.isOnline()) {
             return;
         }
         
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (player == null || !player.isOnline()) {
+        scheduler.runForPlayer(player, () -> {
+            if (!isThinking || hasStartedReceiving || player == null || !player.isOnline()) {
                 return;
             }
             
-            // Clear screen with blank lines
-            for (int i = 0; i < CLEAR_LINES; i++) {
-                player.sendMessage("");
-            }
-            
-            // Show header
-            player.sendMessage(WDPHelpPlugin.translateHexColors(config.getHeader()));
-            player.sendMessage("");
+            String message = buildThinkingMessage();
             
-            // Build thinking message
-            String[] patterns = config.getDotsPattern();
-            String dots = patterns[dotPosition.get() % patterns.length];
-            
-            long elapsed = System.currentTimeMillis() - startTime.get();
-            String message;
-            
-            if (elapsed < config.getMessageDelay() * 1000L) {
-                // Still in initial phase - just show dots
-                message = WDPHelpPlugin.translateHexColors(dots + " " + config.getThinkingInitial().replace("&#AAAAAA● &#FFFFFF", ""));
-            } else {
-                // Show rotating message with dots
-                List<String> thinkingMsgs = messages.getThinkingMessages();
-                String statusMsg = thinkingMsgs.isEmpty() ? "Thinking..." : thinkingMsgs.get(messageIndex.get() % thinkingMsgs.size());
-                message = WDPHelpPlugin.translateHexColors(dots + " " + statusMsg);
+            switch (thinkingMode) {
+                case ACTIONBAR:
+                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(message));
+                    break;
+                case BOSSBAR:
+                    if (bossBar == null) {
+                        bossBar = Bukkit.createBossBar(message, config.getBossBarColor(), config.getBossBarStyle());
+                        bossBar.setProgress(1.0);
+                        bossBar.addPlayer(player);
+                    } else {
+                        bossBar.setTitle(message);
+                    }
+                    break;
+                default:
+                    // Paced like answer lines; replaces the previous frame if it is still queued
+                    List<BaseComponent[]> frame = new ArrayList<>(CLEAR_LINES + 3);
+                    for (int i = 0; i < CLEAR_LINES; i++) {
+                        frame.add(BLANK_LINE);
+                    }
+                    frame.add(TextComponent.fromLegacyText(config.getRenderedHeader()));
+                    frame.add(BLANK_LINE);
+                    frame.add(TextComponent.fromLegacyText(message));
+                    output.enqueueFrame(player, frame);
+                    break;
             }
             
-            // Send thinking message
-            player.sendMessage(message);
             lastThinkingMessage = message;
         });
     }
     
+    /**
+     * Show the request's position in the AI queue in the thinking indicator (0 = dispatched)
+     * Safe to call from any thread.
+     */
+    public void setQueuePosition(int position) {
+        if (queuePosition == position) {
+            return;
+        }
+        queuePosition = position;
+        sendThinkingLine();
+    }
+    
+    /**
+     * Build the current thinking frame (dots + queue position, initial or rotating message)
+     */
+    private String buildThinkingMessage() {
+        String[] patterns = config.getRenderedDotsPattern();
+        String dots = patterns[dotPosition.get() % patterns.length];
+        
+        // Still waiting for a free slot
+        int position = queuePosition;
+        if (position > 0) {
+            return dots + " " + messages.get("help.queue-position", "position", position);
+        }
+        
+        long elapsed = System.currentTimeMillis() - startTime.get();
+        
+        if (elapsed < config.getMessageDelay() * 1000L) {
+            // Still in initial phase - just show dots
+            return dots + " " + config.getRenderedThinkingInitial();
+        }
+        
+        // Show rotating message with dots
+        List<String> thinkingMsgs = messages.getThinkingMessages();
+        String statusMsg = thinkingMsgs.isEmpty() ? "Thinking..." : thinkingMsgs.get(messageIndex.get() % thinkingMsgs.size());
+        return dots + " " + statusMsg;
+    }
     
     /**
      * Stop the thinking animation
@@ -201,11 +281,33 @@ public class ChatDisplay {
             messageRotationTask = null;
         }
         
+        // A frame still waiting would land on top of the answer
+        if (thinkingMode == ThinkingMode.CHAT) {
+            output.clearFrames(player.getUniqueId());
+        }
+        
+        // Take down the non-chat indicators
+        if (thinkingMode != ThinkingMode.CHAT) {
+            scheduler.runForPlayer(player, () -> {
+                if (bossBar != null) {
+                    bossBar.removeAll();
+                    bossBar = null;
+                }
+                if (thinkingMode == ThinkingMode.ACTIONBAR && player != null && player.isOnline()) {
+                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(""));
+                }
+            });
+        }
+        
         lastThinkingMessage = "";
     }
     
     /**
      * Append text to the current response
+     * Called from the AI worker thread with deltas of any size. Text is only
+     * buffered here; finished lines are wrapped, rendered and queued by
+     * {@link #flush(boolean)} at most once per tick, so the number of enqueues
+     * does not depend on how finely the provider chunks its tokens.
      */
     public void appendText(String chunk) {
         if (chunk == null || chunk.isEmpty()) {
@@ -215,87 +317,72 @@ public class ChatDisplay {
         // Mark that we've started receiving
         if (!hasStartedReceiving) {
             hasStartedReceiving = true;
-            // Clear screen to remove thinking animation
-            clear();
-            // Show header again
-            showHeader();
+            // Only the chat indicator draws into chat, so only it needs wiping
+            if (thinkingMode == ThinkingMode.CHAT) {
+                // Clear screen to remove thinking animation, then show header again
+                List<BaseComponent[]> batch = new ArrayList<>();
+                for (int i = 0; i < CLEAR_LINES; i++) {
+                    batch.add(BLANK_LINE);
+                }
+                batch.add(BLANK_LINE);
+                batch.add(TextComponent.fromLegacyText(config.getRenderedHeader()));
+                batch.add(BLANK_LINE);
+                sendLines(batch);
+            }
         }
         
         // Append to current text
         currentText.append(chunk);
+        assembler.append(chunk);
         
-        // Send the text to player immediately with clickable commands
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (player != null && player.isOnline()) {
-                // Handle newlines first - split by actual newlines
-                String[] lines = chunk.split("\\\\n");
-                for (String line : lines) {
-                    // Prepend white color code to maintain text color across newlines
-                    line = "§f" + line;
-                    // Word wrap each line if needed
-                    List<String> wrappedLines = wordWrap(line, MAX_LINE_LENGTH);
-                    for (String wrappedLine : wrappedLines) {
-                        sendClickableMessage(wrappedLine);
-                    }
-                }
-            }
-        });
+        // Flush now if the last flush was a tick ago, otherwise once the tick is up
+        if (System.nanoTime() - lastFlushNanos >= TICK_NANOS) {
+            flush(false);
+        } else if (flushPending.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                flushPending.set(false);
+                flush(false);
+            }, FLUSH_EXECUTOR);
+        }
     }
     
     /**
-     * Send a message with clickable commands and color codes
+     * Render and queue all lines the assembler has finished
+     * Render and enqueue happen under one lock so lines keep their order.
+     * With pagination only the first page is sent now; the rest is rendered on demand.
+     * @param complete true on the final flush, which also sends the last partial line
      */
-    private void sendClickableMessage(String text) {
-        if (text.isEmpty()) {
-            // Empty line - send blank for spacing
-            player.sendMessage("");
-            return;
-        }
-        
-        Matcher matcher = COMMAND_PATTERN.matcher(text);
+    private synchronized void flush(boolean complete) {
+        lastFlushNanos = System.nanoTime();
         
-        if (!matcher.find()) {
-            // No commands found, send as regular message with color codes
-            String colored = text.replace("§", "&"); // Convert § to & for color translation
-            String prefixNoColor = WDPHelpPlugin.translateHexColors(config.getAiPrefix()).replaceAll("§[0-9a-f]", ""); // Strip color from prefix
-            player.sendMessage(prefixNoColor + colored);
+        List<String> finished = assembler.drain(complete);
+        if (finished.isEmpty()) {
             return;
         }
         
-        // Build clickable text component
-        matcher.reset();
-        String colored = text.replace("§", "&"); // Convert § to & for color translation
-        String prefixNoColor = WDPHelpPlugin.translateHexColors(config.getAiPrefix()).replaceAll("§[0-9a-f]", ""); // Strip color from prefix
-        TextComponent message = new TextComponent(prefixNoColor);
-        
-        int lastEnd = 0;
-        while (matcher.find()) {
-            // Add text before command (with colors)
-            if (matcher.start() > lastEnd) {
-                String beforeText = colored.substring(lastEnd, matcher.start());
-                message.addExtra(new TextComponent(WDPHelpPlugin.translateHexColors(beforeText)));
+        boolean paginate = config.isPaginationEnabled();
+        int linesPerPage = config.getLinesPerPage();
+        List<BaseComponent[]> batch = new ArrayList<>();
+        for (String line : finished) {
+            displayedLines.add(line);
+            if (!paginate || displayedLines.size() <= linesPerPage) {
+                BaseComponent[] rendered = renderer.renderLine(line);
+                firstPage.add(rendered);
+                batch.add(rendered);
             }
-            
-            // Add clickable command
-            String command = matcher.group(1);
-            TextComponent commandComponent = new TextComponent(command);
-            commandComponent.setColor(net.md_5.bungee.api.ChatColor.YELLOW);
-            commandComponent.setBold(true);
-            commandComponent.setClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, command));
-            commandComponent.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, 
-                new Text("Click to use: " + command)));
-            
-            message.addExtra(commandComponent);
-            lastEnd = matcher.end();
         }
         
-        // Add remaining text (with colors)
-        if (lastEnd < colored.length()) {
-            String remainingText = colored.substring(lastEnd);
-            message.addExtra(new TextComponent(WDPHelpPlugin.translateHexColors(remainingText)));
+        sendLines(batch);
+    }
+    
+    /**
+     * Hand pre-rendered lines to the global output scheduler
+     */
+    private void sendLines(List<BaseComponent[]> lines) {
+        if (player == null || !player.isOnline()) {
+            return;
         }
-        
-        player.spigot().sendMessage(message);
+        output.enqueue(player, lines);
     }
     
     /**
@@ -306,76 +393,116 @@ public class ChatDisplay {
             return;
         }
         
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (player != null && player.isOnline()) {
-                String displayMsg = config.getToolPrefix() + message + config.getToolSuffix();
-                player.sendMessage(WDPHelpPlugin.translateHexColors(displayMsg));
-            }
-        });
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(TextComponent.fromLegacyText(config.getRenderedToolPrefix() + WDPHelpPlugin.translateHexColors(message) + config.getRenderedToolSuffix()));
+        sendLines(lines);
     }
     
     /**
      * Complete the display
      */
-    public void complete() {
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (player != null && player.isOnline()) {
-                player.sendMessage("");
+    public synchronized void complete() {
+        // Send whatever the stream left in the assembler
+        flush(true);
+        
+        List<BaseComponent[]> lines = new ArrayList<>();
+        
+        // Keep the answer as pages so the rest can be opened with /help page
+        if (config.isPaginationEnabled() && !displayedLines.isEmpty()) {
+            pages = new AnswerPages(displayedLines, config.getLinesPerPage());
+            pages.putRendered(0, firstPage);
+            plugin.getPageStore().setActive(player.getUniqueId(), pages);
+            
+            if (pages.getPageCount() > 1) {
+                lines.add(BLANK_LINE);
+                lines.add(buildPageControls(0, pages.getPageCount()));
             }
-        });
+        }
+        
+        lines.add(BLANK_LINE);
+        sendLines(lines);
+    }
+    
+    /**
+     * Show a complete answer at once (local answers, nothing was streamed)
+     * No thinking indicator was drawn, so the chat is not wiped first.
+     */
+    public synchronized void showAnswer(String text) {
+        hasStartedReceiving = true;
+        currentText.append(text);
+        assembler.append(text);
+        complete();
+    }
+    
+    /**
+     * Get the pages of the completed answer (null if pagination is off)
+     */
+    public AnswerPages getPages() {
+        return pages;
+    }
+    
+    /**
+     * Show one page (0-based) of an answer with header, controls and footer
+     */
+    public void showPage(AnswerPages answerPages, int page) {
+        List<BaseComponent[]> lines = new ArrayList<>();
+        lines.add(BLANK_LINE);
+        lines.add(TextComponent.fromLegacyText(config.getRenderedHeader()));
+        lines.add(BLANK_LINE);
+        lines.addAll(answerPages.renderPage(page, renderer));
+        lines.add(BLANK_LINE);
+        if (answerPages.getPageCount() > 1) {
+            lines.add(buildPageControls(page, answerPages.getPageCount()));
+        }
+        lines.add(TextComponent.fromLegacyText(config.getRenderedFooter()));
+        lines.add(BLANK_LINE);
+        sendLines(lines);
     }
     
     /**
-     * Word wrap text to specified width
+     * Build the clickable previous / page x of y / next line
      */
-    private List<String> wordWrap(String text, int maxWidth) {
-        List<String> lines = new ArrayList<>();
+    private BaseComponent[] buildPageControls(int page, int pageCount) {
+        TextComponent controls = new TextComponent("");
         
-        // Split by existing newlines first
-        String[] paragraphs = text.split("\n");
+        if (page > 0) {
+            TextComponent previous = new TextComponent(TextComponent.fromLegacyText(messages.get("help.page.previous")));
+            previous.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/help page " + page));
+            previous.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(messages.get("help.page.previous-hover"))));
+            controls.addExtra(previous);
+            controls.addExtra(" ");
+        }
         
-        for (String paragraph : paragraphs) {
-            if (paragraph.trim().isEmpty()) {
-                lines.add("");
-                continue;
-            }
-            
-            // Wrap long lines
-            String[] words = paragraph.split(" ");
-            StringBuilder currentLine = new StringBuilder();
-            
-            for (String word : words) {
-                if (currentLine.length() + word.length() + 1 > maxWidth) {
-                    if (currentLine.length() > 0) {
-                        lines.add(currentLine.toString().trim());
-                        currentLine = new StringBuilder();
-                    }
-                }
-                
-                if (currentLine.length() > 0) {
-                    currentLine.append(" ");
-                }
-                currentLine.append(word);
-            }
-            
-            if (currentLine.length() > 0) {
-                lines.add(currentLine.toString().trim());
-            }
+        for (BaseComponent part : TextComponent.fromLegacyText(messages.get("help.page.indicator", "page", page + 1, "pages", pageCount))) {
+            controls.addExtra(part);
+        }
+        
+        if (page < pageCount - 1) {
+            controls.addExtra(" ");
+            TextComponent next = new TextComponent(TextComponent.fromLegacyText(messages.get("help.page.next")));
+            next.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/help page " + (page + 2)));
+            next.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(messages.get("help.page.next-hover"))));
+            controls.addExtra(next);
         }
         
-        return lines;
+        return new BaseComponent[]{controls};
+    }
+    
+    /**
+     * Get the renderer used by this display
+     */
+    public AnswerRenderer getRenderer() {
+        return renderer;
     }
     
     /**
      * Clear the display (send blank lines)
      */
     public void clear() {
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (player != null && player.isOnline()) {
-                for (int i = 0; i < CLEAR_LINES; i++) {
-                    player.sendMessage("");
-                }
-            }
-        });
+        List<BaseComponent[]> lines = new ArrayList<>();
+        for (int i = 0; i < CLEAR_LINES; i++) {
+            lines.add(BLANK_LINE);
+        }
+        sendLines(lines);
     }
 }
@@ -0,0 +1,226 @@
+package com.wdp.help.display;
+
+import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.config.ConfigManager;
+import com.wdp.help.scheduler.TaskHandle;
+import com.wdp.help.scheduler.TaskScheduler;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Global chat output scheduler
+ * Rendered lines are queued per player and drained once per tick, round-robin
+ * across players, under a global per-tick line budget and a per-player rate.
+ * Many answers completing at once are spread over a few ticks instead of
+ * bursting into the same tick.
+ * On Folia each player's share of a tick is sent on that player's entity
+ * scheduler, so players in different regions are served in parallel.
+ * Animation frames (the chat thinking indicator) replace the player's
+ * previous frame if it has not been sent yet, so they never pile up.
+ */
+public class ChatOutputScheduler {
+    
+    private final WDPHelpPlugin plugin;
+    private final TaskScheduler scheduler;
+    private final Map<UUID, Queue<QueuedLine>> queues;
+    private TaskHandle drainTask;
+    
+    // Drain cycle counter, used to detect lines that had to wait
+    private volatile long drainCycle;
+    // Rotates the starting player so nobody is always served first
+    private int cursor;
+    
+    public ChatOutputScheduler(WDPHelpPlugin plugin, TaskScheduler scheduler) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.queues = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Start the per-tick drain task
+     */
+    public void start() {
+        if (drainTask == null) {
+            drainTask = scheduler.runGlobalTimer(this::drain, 1L, 1L);
+        }
+    }
+    
+    /**
+     * Stop draining and drop everything still queued
+     */
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        queues.clear();
+    }
+    
+    /**
+     * Queue lines for a player (safe to call from any thread)
+     */
+    public void enqueue(Player player, List<BaseComponent[]> lines) {
+        if (player == null || lines.isEmpty()) {
+            return;
+        }
+        
+        Queue<QueuedLine> queue = queues.computeIfAbsent(player.getUniqueId(), k -> new ConcurrentLinkedQueue<>());
+        long eligibleCycle = drainCycle + 1;
+        for (BaseComponent[] line : lines) {
+            queue.add(new QueuedLine(line, eligibleCycle, false));
+        }
+    }
+    
+    /**
+     * Queue an animation frame, dropping what is left of the player's previous frame
+     */
+    public void enqueueFrame(Player player, List<BaseComponent[]> lines) {
+        if (player == null || lines.isEmpty()) {
+            return;
+        }
+        
+        Queue<QueuedLine> queue = queues.computeIfAbsent(player.getUniqueId(), k -> new ConcurrentLinkedQueue<>());
+        queue.removeIf(line -> line.frame);
+        long eligibleCycle = drainCycle + 1;
+        for (BaseComponent[] line : lines) {
+            queue.add(new QueuedLine(line, eligibleCycle, true));
+        }
+    }
+    
+    /**
+     * Drop a player's unsent animation frame lines, keeping everything else
+     */
+    public void clearFrames(UUID uuid) {
+        Queue<QueuedLine> queue = queues.get(uuid);
+        if (queue != null) {
+            queue.removeIf(line -> line.frame);
+        }
+    }
+    
+    /**
+     * Drop all pending lines for a player
+     */
+    public void clear(UUID uuid) {
+        queues.remove(uuid);
+    }
+    
+    /**
+     * Get the number of lines waiting for a player
+     */
+    public int getPending(UUID uuid) {
+        Queue<QueuedLine> queue = queues.get(uuid);
+        return queue == null ? 0 : queue.size();
+    }
+    
+    /**
+     * Send up to the per-tick budget, one line per player per round
+     */
+    private void drain() {
+        long cycle = ++drainCycle;
+        if (queues.isEmpty()) {
+            return;
+        }
+        
+        ConfigManager config = plugin.getConfigManager();
+        int budget = config.getOutputLinesPerTick();
+        int perPlayer = config.getOutputLinesPerPlayerPerTick();
+        
+        // Collect players with pending output, dropping offline ones
+        List<Player> players = new ArrayList<>();
+        List<Queue<QueuedLine>> playerQueues = new ArrayList<>();
+        for (Map.Entry<UUID, Queue<QueuedLine>> entry : queues.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null || !player.isOnline()) {
+                queues.remove(entry.getKey());
+                continue;
+            }
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            players.add(player);
+            playerQueues.add(entry.getValue());
+        }
+        
+        int count = players.size();
+        if (count == 0) {
+            return;
+        }
+        
+        // Pick this tick's lines round-robin
+        List<List<QueuedLine>> batches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batches.add(new ArrayList<>());
+        }
+        int start = Math.floorMod(cursor++, count);
+        boolean progress = true;
+        
+        while (budget > 0 && progress) {
+            progress = false;
+            for (int n = 0; n < count && budget > 0; n++) {
+                int i = (start + n) % count;
+                List<QueuedLine> batch = batches.get(i);
+                if (batch.size() >= perPlayer) {
+                    continue;
+                }
+                
+                QueuedLine line = playerQueues.get(i).poll();
+                if (line == null) {
+                    continue;
+                }
+                
+                batch.add(line);
+                budget--;
+                progress = true;
+            }
+        }
+        
+        // Send each player's share on the thread that owns the player
+        for (int i = 0; i < count; i++) {
+            List<QueuedLine> batch = batches.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            
+            Player player = players.get(i);
+            if (scheduler.isRegionThreaded()) {
+                scheduler.runForPlayer(player, () -> sendBatch(player, batch, cycle));
+            } else {
+                sendBatch(player, batch, cycle);
+            }
+        }
+    }
+    
+    private void sendBatch(Player player, List<QueuedLine> batch, long cycle) {
+        if (!player.isOnline()) {
+            return;
+        }
+        for (QueuedLine line : batch) {
+            player.spigot().sendMessage(line.components);
+            plugin.getMetrics().recordLineSent(cycle > line.eligibleCycle);
+        }
+    }
+    
+    /**
+     * A rendered line waiting to be sent
+     */
+    private static class QueuedLine {
+        private final BaseComponent[] components;
+        private final long eligibleCycle;
+        private final boolean frame;
+        
+        private QueuedLine(BaseComponent[] components, long eligibleCycle, boolean frame) {
+            this.components = components;
+            this.eligibleCycle = eligibleCycle;
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.wdp.help.display;
+
+/**
+ * Single-pass color code translator
+ * Handles &#RRGGBB hex colors and legacy &x codes in one scan, optionally
+ * treating § as an alternate code character and/or stripping color codes.
+ * Strings without any code character are returned unchanged.
+ */
+public final class ColorTranslator {
+    
+    public static final char COLOR_CHAR = '§';
+    private static final char ALT_CHAR = '&';
+    
+    // Buffers larger than this are not kept around between calls
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+    
+    private ColorTranslator() {
+    }
+    
+    /**
+     * Translate &#RRGGBB and &-codes to § codes
+     */
+    public static String translate(String input) {
+        return process(input, false, false);
+    }
+    
+    /**
+     * Translate like {@link #translate(String)}, also normalising existing § codes
+     * (used for AI answer text, which mixes § and & codes)
+     */
+    public static String translateSections(String input) {
+        return process(input, true, false);
+    }
+    
+    /**
+     * Translate and drop all color codes (hex and 0-9/a-f), keeping formatting codes
+     */
+    public static String stripColors(String input) {
+        return process(input, true, true);
+    }
+    
+    private static String process(String input, boolean sectionIsAlt, boolean stripColors) {
+        if (input == null) {
+            return "";
+        }
+        
+        // Fast path: nothing to translate
+        if (input.indexOf(ALT_CHAR) < 0 && (!sectionIsAlt || input.indexOf(COLOR_CHAR) < 0)) {
+            return input;
+        }
+        
+        int length = input.length();
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(length + 16);
+        
+        // Text between codes is copied in runs, not char by char
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            boolean isCodeChar = c == ALT_CHAR || (sectionIsAlt && c == COLOR_CHAR);
+            
+            if (!isCodeChar) {
+                continue;
+            }
+            out.append(input, runStart, i);
+            runStart = i + 1;
+            
+            if (i + 1 < length) {
+                char next = input.charAt(i + 1);
+                
+                // &#RRGGBB (or §#RRGGBB when § is an alternate) -> §x§r§r§g§g§b§b
+                if (next == '#' && isHexColor(input, i + 2)) {
+                    if (!stripColors) {
+                        out.append(COLOR_CHAR).append('x');
+                        for (int k = i + 2; k < i + 8; k++) {
+                            out.append(COLOR_CHAR).append(toLowerAscii(input.charAt(k)));
+                        }
+                    }
+                    i += 7;
+                    runStart = i + 1;
+                    continue;
+                }
+                
+                char code = toLowerAscii(next);
+                if (isFormatCode(code) || isColorCode(code)) {
+                    if (!stripColors || isFormatCode(code)) {
+                        out.append(COLOR_CHAR).append(code);
+                    }
+                    i++;
+                    runStart = i + 1;
+                    continue;
+                }
+            }
+            
+            // A § that starts no code is shown as & (like the old replace("§", "&") did)
+            out.append(c == COLOR_CHAR && sectionIsAlt && !stripColors ? ALT_CHAR : c);
+        }
+        out.append(input, runStart, length);
+        
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.set(new StringBuilder(128));
+        }
+        return result;
+    }
+    
+    private static boolean isHexColor(String input, int start) {
+        if (start + 6 > input.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 6; i++) {
+            if (!isHexDigit(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // ASCII only: Character.digit would also accept fullwidth and other Unicode digits
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+    
+    // ASCII only, so e.g. the Kelvin sign does not become the &k code
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    
+    private static boolean isColorCode(char code) {
+        return (code >= '0' && code <= '9') || (code >= 'a' && code <= 'f') || code == 'x';
+    }
+    
+    private static boolean isFormatCode(char code) {
+        return (code >= 'k' && code <= 'o') || code == 'r';
+    }
+}
@@ -0,0 +1,45 @@
+package com.wdp.help.display;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-player cache of the rendered /help menu
+ * The menu only changes when the player's history changes or messages are
+ * reloaded, so repeated /help calls just resend the cached component lines.
+ */
+public class HelpMenuCache {
+    
+    private final Map<UUID, List<BaseComponent[]>> menus;
+    
+    public HelpMenuCache() {
+        this.menus = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Get the cached menu for a player, building it on first use
+     */
+    public List<BaseComponent[]> get(UUID uuid, Supplier<List<BaseComponent[]>> builder) {
+        return menus.computeIfAbsent(uuid, k -> Collections.unmodifiableList(builder.get()));
+    }
+    
+    /**
+     * Drop a player's menu (their history changed)
+     */
+    public void invalidate(UUID uuid) {
+        menus.remove(uuid);
+    }
+    
+    /**
+     * Drop all menus (e.g. after messages were reloaded)
+     */
+    public void clearAll() {
+        menus.clear();
+    }
+}
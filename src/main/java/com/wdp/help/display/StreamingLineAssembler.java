@@ -0,0 +1,87 @@
+package com.wdp.help.display;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembles streamed answer text into finished, wrapped chat lines
+ * Deltas of any size are appended as they arrive; only lines that can no
+ * longer change are handed out, so a provider sending one token at a time
+ * does not produce fragmented one-word chat lines.
+ * A wrapped line is final once a later line exists in the same paragraph
+ * (only the last word can still grow), or once its paragraph has ended.
+ */
+public class StreamingLineAssembler {
+    
+    private final AnswerRenderer renderer;
+    private final StringBuilder paragraph;
+    private int emitted; // Wrapped lines of the current paragraph already handed out
+    
+    public StreamingLineAssembler(AnswerRenderer renderer) {
+        this.renderer = renderer;
+        this.paragraph = new StringBuilder();
+        this.emitted = 0;
+    }
+    
+    /**
+     * Append a streamed delta
+     */
+    public synchronized void append(String delta) {
+        paragraph.append(delta);
+    }
+    
+    /**
+     * Take all lines that are finished
+     * @param complete true when the stream has ended and everything should be flushed
+     */
+    public synchronized List<String> drain(boolean complete) {
+        List<String> lines = new ArrayList<>();
+        
+        // Paragraphs closed by a newline are final
+        int newline;
+        while ((newline = indexOfNewline()) >= 0) {
+            int separatorLength = paragraph.charAt(newline) == '\\' ? 2 : 1;
+            String finished = paragraph.substring(0, newline);
+            paragraph.delete(0, newline + separatorLength);
+            
+            List<String> wrapped = renderer.wrapParagraph(finished);
+            if (emitted < wrapped.size()) {
+                lines.addAll(wrapped.subList(emitted, wrapped.size()));
+            }
+            emitted = 0;
+        }
+        
+        // In the open paragraph every line but the last is final
+        if (paragraph.length() > 0) {
+            List<String> wrapped = renderer.wrapParagraph(paragraph.toString());
+            int finalLines = complete ? wrapped.size() : wrapped.size() - 1;
+            if (finalLines > emitted) {
+                lines.addAll(wrapped.subList(emitted, finalLines));
+                emitted = finalLines;
+            }
+        }
+        
+        if (complete) {
+            paragraph.setLength(0);
+            emitted = 0;
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * Find the first escaped (backslash + n) or real newline
+     */
+    private int indexOfNewline() {
+        for (int i = 0; i < paragraph.length(); i++) {
+            char c = paragraph.charAt(i);
+            if (c == '\n') {
+                return i;
+            }
+            if (c == '\\' && i + 1 < paragraph.length() && paragraph.charAt(i + 1) == 'n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wdp.help.display;
+
+/**
+ * Where the thinking indicator is rendered while the AI works
+ * - CHAT: clears the chat and redraws header + status every frame
+ * - ACTIONBAR: a single action bar update per frame, chat is left untouched
+ * - BOSSBAR: a single boss bar title update per frame, chat is left untouched
+ */
+public enum ThinkingMode {
+    CHAT,
+    ACTIONBAR,
+    BOSSBAR;
+    
+    /**
+     * Parse a mode from config, falling back to CHAT for unknown values
+     */
+    public static ThinkingMode fromString(String value) {
+        if (value == null) {
+            return CHAT;
+        }
+        
+        switch (value.trim().toLowerCase()) {
+            case "actionbar":
+            case "action-bar":
+                return ACTIONBAR;
+            case "bossbar":
+            case "boss-bar":
+                return BOSSBAR;
+            default:
+                return CHAT;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wdp.help.faq;
+
+import java.util.List;
+
+/**
+ * A known answer with the question wordings that lead to it
+ */
+public class FaqEntry {
+    
+    private final String name;
+    private final List<String> questions;
+    private final String title;
+    private final String shortDescription;
+    private final String answer;
+    
+    public FaqEntry(String name, List<String> questions, String title, String shortDescription, String answer) {
+        this.name = name;
+        this.questions = questions;
+        this.title = title;
+        this.shortDescription = shortDescription;
+        this.answer = answer;
+    }
+    
+    public String getName() { return name; }
+    public List<String> getQuestions() { return questions; }
+    public String getTitle() { return title; }
+    public String getShortDescription() { return shortDescription; }
+    public String getAnswer() { return answer; }
+}
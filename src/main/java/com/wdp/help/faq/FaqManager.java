@@ -0,0 +1,173 @@
+package com.wdp.help.faq;
+
+import com.wdp.help.WDPHelpPlugin;
+import com.wdp.help.question.QuestionCanonicalizer;
+import com.wdp.help.question.SimHash;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local FAQ answered without contacting the AI
+ * Each file in the faq directory lists question variants and one answer.
+ * Variants are indexed by canonical form and fingerprint with the same
+ * {@link QuestionCanonicalizer} as the answer cache, so a question matches
+ * when its canonical form is a known variant or its fingerprint is within
+ * faq.max-distance bits of one. The index is rebuilt on reload.
+ */
+public class FaqManager {
+    
+    private final WDPHelpPlugin plugin;
+    private volatile Index index = Index.EMPTY;
+    
+    public FaqManager(WDPHelpPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Load all FAQ files and rebuild the index
+     */
+    public void loadFaqFiles() {
+        QuestionCanonicalizer canonicalizer = plugin.getCanonicalizer();
+        List<FaqEntry> entries = new ArrayList<>();
+        
+        File faqDir = new File(plugin.getDataFolder(), plugin.getConfigManager().getFaqDirectory());
+        if (!faqDir.exists()) {
+            faqDir.mkdirs();
+        }
+        
+        File[] files = faqDir.listFiles((dir, name) -> name.endsWith(".yml") || name.endsWith(".yaml"));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    FaqEntry entry = parseFaqFile(file);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Failed to load FAQ file: " + file.getName() + " - " + e.getMessage());
+                }
+            }
+        }
+        
+        Index built = new Index(entries, canonicalizer);
+        index = built;
+        plugin.getLogger().info("Loaded " + entries.size() + " FAQ entries (" + built.size() + " question variants).");
+    }
+    
+    /**
+     * Parse a FAQ file
+     * Format:
+     * questions:
+     *   - "How do I set a home?"
+     *   - "sethome"
+     * title: "Setting a Home"
+     * short: "Use /sethome <name>"
+     * answer: |
+     *   Answer text shown to the player...
+     */
+    private FaqEntry parseFaqFile(File file) throws Exception {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.load(file);
+        
+        String name = file.getName().replace(".yml", "").replace(".yaml", "");
+        List<String> questions = yaml.getStringList("questions");
+        String answer = yaml.getString("answer", "").trim();
+        if (questions.isEmpty() || answer.isEmpty()) {
+            plugin.getLogger().warning("FAQ file " + file.getName() + " needs questions and an answer, skipping.");
+            return null;
+        }
+        
+        String title = yaml.getString("title", name);
+        String shortDescription = yaml.getString("short", title);
+        return new FaqEntry(name, questions, title, shortDescription, answer);
+    }
+    
+    /**
+     * Find the FAQ entry answering a question
+     * @return the entry, or null if no variant is close enough
+     */
+    public FaqEntry match(String question) {
+        Index current = index;
+        if (!plugin.getConfigManager().isFaqEnabled() || current.size() == 0) {
+            return null;
+        }
+        
+        String canonical = plugin.getCanonicalizer().canonicalize(question);
+        FaqEntry exact = current.byCanonical.get(canonical);
+        if (exact != null) {
+            return exact;
+        }
+        
+        // Closest variant within the threshold
+        long fingerprint = plugin.getCanonicalizer().fingerprintCanonical(canonical);
+        int maxDistance = plugin.getConfigManager().getFaqMaxDistance();
+        FaqEntry best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < current.fingerprints.length; i++) {
+            int distance = SimHash.distance(fingerprint, current.fingerprints[i]);
+            if (distance <= maxDistance && distance < bestDistance) {
+                best = current.owners[i];
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Get all loaded FAQ entries
+     */
+    public List<FaqEntry> getEntries() {
+        return index.entries;
+    }
+    
+    /**
+     * Get the number of loaded FAQ entries
+     */
+    public int size() {
+        return index.entries.size();
+    }
+    
+    /**
+     * Immutable lookup tables over all question variants
+     */
+    private static class Index {
+        private static final Index EMPTY = new Index(new ArrayList<>(), null);
+        
+        private final Map<String, FaqEntry> byCanonical = new HashMap<>();
+        private final long[] fingerprints;
+        private final FaqEntry[] owners;
+        private final List<FaqEntry> entries;
+        
+        private Index(List<FaqEntry> entries, QuestionCanonicalizer canonicalizer) {
+            List<FaqEntry> variantOwners = new ArrayList<>();
+            List<Long> variantFingerprints = new ArrayList<>();
+            for (FaqEntry entry : entries) {
+                for (String question : entry.getQuestions()) {
+                    String canonical = canonicalizer.canonicalize(question);
+                    if (canonical.isEmpty() || byCanonical.putIfAbsent(canonical, entry) != null) {
+                        continue;
+                    }
+                    variantOwners.add(entry);
+                    variantFingerprints.add(canonicalizer.fingerprintCanonical(canonical));
+                }
+            }
+            
+            this.fingerprints = new long[variantFingerprints.size()];
+            for (int i = 0; i < fingerprints.length; i++) {
+                fingerprints[i] = variantFingerprints.get(i);
+            }
+            this.owners = variantOwners.toArray(new FaqEntry[0]);
+            this.entries = Collections.unmodifiableList(entries);
+        }
+        
+        private int size() {
+            return fingerprints.length;
+        }
+    }
+}
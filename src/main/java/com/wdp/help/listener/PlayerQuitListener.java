@@ -0,0 +1,35 @@
+package com.wdp.help.listener;
+
+import com.wdp.help.WDPHelpPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+/**
+ * Frees everything a player was waiting for when they leave
+ * The running or queued AI request is cancelled (no worker stays tied up
+ * streaming an answer nobody reads) and pending chat lines are dropped.
+ * Pages of their answers, their cached /help menu and their Discord link
+ * state are forgotten too.
+ */
+public class PlayerQuitListener implements Listener {
+    
+    private final WDPHelpPlugin plugin;
+    
+    public PlayerQuitListener(WDPHelpPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        plugin.getAIService().cancel(uuid);
+        plugin.getAIService().forgetPlayer(uuid);
+        plugin.getOutputScheduler().clear(uuid);
+        plugin.getPageStore().clear(uuid);
+        plugin.getMenuCache().invalidate(uuid);
+    }
+}
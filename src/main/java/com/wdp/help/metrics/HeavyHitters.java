@@ -0,0 +1,145 @@
+package com.wdp.help.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving top-K counter
+ * Tracks the most frequent keys of an unbounded stream in constant memory:
+ * at most {@code capacity} counters are kept, and a new key replaces the
+ * smallest counter, inheriting its count as the error bound. Any key seen
+ * more than total / capacity times is guaranteed to be tracked.
+ */
+public class HeavyHitters {
+    
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount;
+    private long total;
+    private long sequence; // Tie-breaker so equal counts stay distinct in the set
+    
+    public HeavyHitters(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.counters = new HashMap<>();
+        this.byCount = new TreeSet<>((a, b) -> {
+            int byCountCompare = Long.compare(a.count, b.count);
+            return byCountCompare != 0 ? byCountCompare : Long.compare(a.sequence, b.sequence);
+        });
+    }
+    
+    /**
+     * Count one occurrence of a key
+     */
+    public synchronized void offer(String key) {
+        add(key, 1, 0);
+    }
+    
+    /**
+     * Count a key with a known count and error (e.g. seeded or saved counts)
+     */
+    public synchronized void add(String key, long count, long error) {
+        total += count;
+        
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            counter.error += error;
+            byCount.add(counter);
+            return;
+        }
+        
+        if (counters.size() < capacity) {
+            counter = new Counter(key, count, error, sequence++);
+        } else {
+            // Replace the smallest counter; its count becomes our error bound
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.key);
+            counter = new Counter(key, smallest.count + count, smallest.count + error, sequence++);
+        }
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+    
+    /**
+     * Replace all counters with saved state
+     */
+    public synchronized void restore(long savedTotal, List<Entry> entries) {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+        for (Entry entry : entries) {
+            add(entry.getKey(), entry.getCount(), entry.getError());
+        }
+        total = Math.max(total, savedTotal);
+    }
+    
+    /**
+     * Get the top entries, highest count first
+     */
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> top = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Counter counter : byCount.descendingSet()) {
+            if (top.size() >= limit) {
+                break;
+            }
+            top.add(new Entry(counter.key, counter.count, counter.error));
+        }
+        return top;
+    }
+    
+    /**
+     * Total number of occurrences offered
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+    
+    /**
+     * Number of keys currently tracked
+     */
+    public synchronized int size() {
+        return counters.size();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    private static class Counter {
+        private final String key;
+        private final long sequence;
+        private long count;
+        private long error;
+        
+        private Counter(String key, long count, long error, long sequence) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+    }
+    
+    /**
+     * A tracked key with its estimated count
+     * The true count lies between count - error and count.
+     */
+    public static class Entry {
+        private final String key;
+        private final long count;
+        private final long error;
+        
+        public Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+        
+        public String getKey() { return key; }
+        public long getCount() { return count; }
+        public long getError() { return error; }
+    }
+}
@@ -0,0 +1,98 @@
+package com.wdp.help.metrics;
+
+import com.wdp.help.question.RelevanceFilter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lightweight runtime counters for the help system
+ * All counters are thread-safe and reset on restart
+ */
+public class HelpMetrics {
+    
+    // Chat output
+    private final AtomicLong linesSent = new AtomicLong();
+    private final AtomicLong linesDeferred = new AtomicLong();
+    
+    // Answer cache
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    
+    // Questions
+    private final AtomicLong questionsAsked = new AtomicLong();
+    private final AtomicLong faqAnswers = new AtomicLong();
+    
+    // Relevance filter verdicts
+    private final AtomicLong offTopic = new AtomicLong();
+    private final AtomicLong borderline = new AtomicLong();
+    private final AtomicLong relevant = new AtomicLong();
+    
+    /**
+     * Record a chat line sent by the output scheduler
+     */
+    public void recordLineSent(boolean deferred) {
+        linesSent.incrementAndGet();
+        if (deferred) {
+            linesDeferred.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Record an answer cache lookup
+     */
+    public void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).incrementAndGet();
+    }
+    
+    /**
+     * Record a question asked by a player
+     */
+    public void recordQuestion() {
+        questionsAsked.incrementAndGet();
+    }
+    
+    /**
+     * Record a question answered from the local FAQ
+     */
+    public void recordFaqAnswer() {
+        faqAnswers.incrementAndGet();
+    }
+    
+    /**
+     * Record a relevance filter verdict
+     */
+    public void recordRelevance(RelevanceFilter.Verdict verdict) {
+        switch (verdict) {
+            case OFF_TOPIC:
+                offTopic.incrementAndGet();
+                break;
+            case BORDERLINE:
+                borderline.incrementAndGet();
+                break;
+            default:
+                relevant.incrementAndGet();
+                break;
+        }
+    }
+    
+    /**
+     * Percentage of questions answered without contacting the AI (FAQ and cache hits)
+     */
+    public double getLocalAnswerPercent() {
+        long asked = questionsAsked.get();
+        if (asked == 0) {
+            return 0.0;
+        }
+        return Math.min(100.0, (faqAnswers.get() + cacheHits.get()) * 100.0 / asked);
+    }
+    
+    public long getLinesSent() { return linesSent.get(); }
+    public long getLinesDeferred() { return linesDeferred.get(); }
+    public long getCacheHits() { return cacheHits.get(); }
+    public long getCacheMisses() { return cacheMisses.get(); }
+    public long getQuestionsAsked() { return questionsAsked.get(); }
+    public long getFaqAnswers() { return faqAnswers.get(); }
+    public long getOffTopic() { return offTopic.get(); }
+    public long getBorderline() { return borderline.get(); }
+    public long getRelevant() { return relevant.get(); }
+}
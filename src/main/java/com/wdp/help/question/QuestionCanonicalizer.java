@@ -0,0 +1,217 @@
+package com.wdp.help.question;
+
+import com.wdp.help.config.ConfigManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces questions to a canonical form and compares them by fingerprint
+ * "How do I set a home?" and "how to set homes" both become "how set home":
+ * lower case, punctuation stripped, synonyms mapped (from config), stop words
+ * removed and plural/verb endings trimmed. Two questions count as the same
+ * when their {@link SimHash} fingerprints differ in at most the configured
+ * number of bits. Thread-safe; settings are swapped atomically on reload.
+ */
+public class QuestionCanonicalizer {
+    
+    // Kept in the canonical form (they tell questions apart) but say nothing about the topic
+    private static final Set<String> QUESTION_WORDS = Set.of("how", "what", "where", "when", "why", "which", "can", "could");
+    
+    private volatile Settings settings;
+    // Bumped on every reload, so fingerprints kept elsewhere know to recompute
+    private volatile int generation;
+    
+    public QuestionCanonicalizer(ConfigManager config) {
+        reload(config);
+    }
+    
+    public QuestionCanonicalizer(Collection<String> stopWords, Map<String, String> synonyms, int maxDistance) {
+        configure(stopWords, synonyms, maxDistance);
+    }
+    
+    /**
+     * Re-read stop words, synonyms and the similarity threshold
+     */
+    public void reload(ConfigManager config) {
+        configure(config.getQuestionStopWords(), config.getQuestionSynonyms(), config.getQuestionMaxDistance());
+    }
+    
+    private void configure(Collection<String> stopWordList, Map<String, String> synonymMap, int maxDistance) {
+        Map<String, String> synonyms = new HashMap<>();
+        for (Map.Entry<String, String> entry : synonymMap.entrySet()) {
+            synonyms.put(entry.getKey().toLowerCase(), entry.getValue().toLowerCase());
+        }
+        Set<String> stopWords = new HashSet<>();
+        for (String word : stopWordList) {
+            stopWords.add(word.toLowerCase());
+        }
+        settings = new Settings(Collections.unmodifiableSet(stopWords), Collections.unmodifiableMap(synonyms), maxDistance);
+        generation++;
+    }
+    
+    /**
+     * Changes whenever the settings (and so every fingerprint) change
+     */
+    public int getGeneration() {
+        return generation;
+    }
+    
+    /**
+     * Canonical form of a question (space-separated words)
+     */
+    public String canonicalize(String question) {
+        Settings current = settings;
+        String[] words = stripPunctuation(question).split(" ");
+        
+        StringBuilder canonical = new StringBuilder();
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            
+            // A synonym may expand to several words ("sethome" -> "set home")
+            String mapped = current.synonyms.getOrDefault(word, word);
+            for (String part : mapped.split(" ")) {
+                if (part.isEmpty() || current.stopWords.contains(part)) {
+                    continue;
+                }
+                if (canonical.length() > 0) {
+                    canonical.append(' ');
+                }
+                canonical.append(stem(part));
+            }
+        }
+        
+        // Only stop words (e.g. "is it"): fall back to the plain words
+        if (canonical.length() == 0) {
+            return String.join(" ", words).trim();
+        }
+        return canonical.toString();
+    }
+    
+    /**
+     * Fingerprint of a question
+     */
+    public long fingerprint(String question) {
+        return SimHash.fingerprint(canonicalize(question));
+    }
+    
+    /**
+     * Fingerprint of an already canonical question
+     */
+    public long fingerprintCanonical(String canonical) {
+        return SimHash.fingerprint(canonical);
+    }
+    
+    /**
+     * Whether two fingerprints belong to the same question
+     */
+    public boolean isSimilar(long a, long b) {
+        return SimHash.distance(a, b) <= settings.maxDistance;
+    }
+    
+    /**
+     * Whether a canonical word only asks (how, where, can, ...) and carries no topic
+     */
+    public static boolean isQuestionWord(String word) {
+        return QUESTION_WORDS.contains(word);
+    }
+    
+    /**
+     * Word overlap (0-1) of two canonical forms (shared words / all words)
+     */
+    public static double similarity(String canonicalA, String canonicalB) {
+        Set<String> a = new HashSet<>(Arrays.asList(canonicalA.split(" ")));
+        Set<String> b = new HashSet<>(Arrays.asList(canonicalB.split(" ")));
+        a.remove("");
+        b.remove("");
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        
+        int shared = 0;
+        for (String word : a) {
+            if (b.contains(word)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+    
+    /**
+     * Lower case, letters/digits only, single spaces
+     */
+    private static String stripPunctuation(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                space = false;
+                sb.append(c);
+            } else if (c != '\'') {
+                // Apostrophes join ("don't" -> "dont"), everything else separates
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Light suffix stripping: plurals, -ing and -ed
+     */
+    private static String stem(String word) {
+        int length = word.length();
+        if (length > 4 && word.endsWith("ies")) {
+            return word.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && word.endsWith("sses")) {
+            return word.substring(0, length - 2);
+        }
+        if (length > 5 && word.endsWith("ing")) {
+            return undouble(word.substring(0, length - 3));
+        }
+        if (length > 4 && word.endsWith("ed")) {
+            return undouble(word.substring(0, length - 2));
+        }
+        if (length > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+    
+    /**
+     * "sett" -> "set", "shopp" -> "shop" (but keep "ll", "ss", "zz")
+     */
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length > 2 && stem.charAt(length - 1) == stem.charAt(length - 2)) {
+            char c = stem.charAt(length - 1);
+            if (c != 'l' && c != 's' && c != 'z' && "aeiou".indexOf(c) < 0) {
+                return stem.substring(0, length - 1);
+            }
+        }
+        return stem;
+    }
+    
+    private static class Settings {
+        private final Set<String> stopWords;
+        private final Map<String, String> synonyms;
+        private final int maxDistance;
+        
+        private Settings(Set<String> stopWords, Map<String, String> synonyms, int maxDistance) {
+            this.stopWords = stopWords;
+            this.synonyms = synonyms;
+            this.maxDistance = maxDistance;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.wdp.help.question;
+
+import com.wdp.help.config.ConfigManager;
+import com.wdp.help.context.ContextFile;
+import com.wdp.help.context.ContextManager;
+import com.wdp.help.faq.FaqEntry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cheap local relevance check run before a question costs an AI request
+ * The question's canonical words are looked up in a vocabulary built from the
+ * context files, the FAQ and the configured game words, and in a list of
+ * off-topic words. Questions with at least as many off-topic as server words (or a
+ * score below relevance-filter.reject-below) are off-topic; questions with
+ * less than relevance-filter.full-model-score of their words known are
+ * borderline. Rebuilt whenever context files are reloaded.
+ */
+public class RelevanceFilter {
+    
+    /**
+     * How a question should be handled
+     */
+    public enum Verdict {
+        // Canned reply, no AI request
+        OFF_TOPIC,
+        // Answered by the borderline (cheaper) model
+        BORDERLINE,
+        // Answered by the main model
+        RELEVANT
+    }
+    
+    private final QuestionCanonicalizer canonicalizer;
+    private volatile Vocabulary vocabulary = new Vocabulary(Collections.emptySet(), Collections.emptySet());
+    
+    public RelevanceFilter(QuestionCanonicalizer canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+    
+    /**
+     * Rebuild the vocabulary from context files, FAQ entries and config word lists
+     */
+    public void rebuild(ConfigManager config, ContextManager contextManager, List<FaqEntry> faqEntries) {
+        Set<String> known = new HashSet<>();
+        for (ContextFile file : contextManager.getAllContextFiles()) {
+            addWords(known, file.getTitle());
+            addWords(known, file.getDescription());
+            addWords(known, file.getContent());
+        }
+        for (FaqEntry entry : faqEntries) {
+            for (String question : entry.getQuestions()) {
+                addWords(known, question);
+            }
+            addWords(known, entry.getTitle());
+        }
+        for (String word : config.getRelevanceGameWords()) {
+            addWords(known, word);
+        }
+        
+        Set<String> offTopic = new HashSet<>();
+        for (String word : config.getRelevanceOffTopicWords()) {
+            addWords(offTopic, word);
+        }
+        // A word the server talks about is never off-topic
+        offTopic.removeAll(known);
+        
+        vocabulary = new Vocabulary(known, offTopic);
+    }
+    
+    /**
+     * Share (0-1) of the question's canonical words the server knows about,
+     * or -1 if the question is clearly off-topic
+     */
+    public double score(String question) {
+        Vocabulary current = vocabulary;
+        String canonical = canonicalizer.canonicalize(question);
+        if (canonical.isEmpty()) {
+            return 1.0;
+        }
+        
+        int counted = 0;
+        int onTopic = 0;
+        int offTopic = 0;
+        for (String word : canonical.split(" ")) {
+            // "where" or "can" neither makes a question relevant nor irrelevant
+            if (QuestionCanonicalizer.isQuestionWord(word)) {
+                continue;
+            }
+            counted++;
+            if (current.known.contains(word)) {
+                onTopic++;
+            } else if (current.offTopic.contains(word)) {
+                offTopic++;
+            }
+        }
+        
+        if (offTopic > 0 && offTopic >= onTopic) {
+            return -1.0;
+        }
+        return counted == 0 ? 1.0 : (double) onTopic / counted;
+    }
+    
+    /**
+     * Classify a question
+     */
+    public Verdict classify(String question, ConfigManager config) {
+        double score = score(question);
+        if (score < 0 || score < config.getRelevanceRejectBelow()) {
+            return Verdict.OFF_TOPIC;
+        }
+        if (score < config.getRelevanceFullModelScore()) {
+            return Verdict.BORDERLINE;
+        }
+        return Verdict.RELEVANT;
+    }
+    
+    /**
+     * Get the number of known server words
+     */
+    public int getVocabularySize() {
+        return vocabulary.known.size();
+    }
+    
+    private void addWords(Set<String> target, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String word : canonicalizer.canonicalize(text).split(" ")) {
+            if (!word.isEmpty()) {
+                target.add(word);
+            }
+        }
+    }
+    
+    /**
+     * Immutable word sets, swapped as a whole on rebuild
+     */
+    private static class Vocabulary {
+        private final Set<String> known;
+        private final Set<String> offTopic;
+        
+        private Vocabulary(Set<String> known, Set<String> offTopic) {
+            this.known = known;
+            this.offTopic = offTopic;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.wdp.help.question;
+
+/**
+ * 64-bit SimHash over the words of a canonical question
+ * Words and adjacent word pairs are hashed and summed bit by bit, so similar
+ * word sets give fingerprints that differ in only a few bits, while unrelated
+ * questions differ in about half of them.
+ */
+public final class SimHash {
+    
+    private SimHash() {
+    }
+    
+    /**
+     * Fingerprint space-separated words
+     */
+    public static long fingerprint(String canonical) {
+        if (canonical.isEmpty()) {
+            return 0L;
+        }
+        
+        String[] words = canonical.split(" ");
+        int[] weights = new int[64];
+        for (int i = 0; i < words.length; i++) {
+            add(weights, hash(words[i]));
+            if (i + 1 < words.length) {
+                add(weights, hash(words[i] + ' ' + words[i + 1]));
+            }
+        }
+        
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+    
+    /**
+     * Number of differing bits between two fingerprints
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+    
+    private static void add(int[] weights, long featureHash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((featureHash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+    
+    /**
+     * FNV-1a followed by a 64-bit finalizer so every bit depends on every character
+     */
+    private static long hash(String feature) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            hash ^= feature.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
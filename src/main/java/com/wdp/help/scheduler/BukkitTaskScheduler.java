@@ -0,0 +1,47 @@
+package com.wdp.help.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Scheduler for Bukkit/Spigot/Paper: everything runs on the main thread
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+    
+    private final Plugin plugin;
+    
+    public BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public TaskHandle runForPlayer(Player player, Runnable task) {
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTask(plugin, task);
+        return bukkitTask::cancel;
+    }
+    
+    @Override
+    public TaskHandle runForPlayerTimer(Player player, Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return bukkitTask::cancel;
+    }
+    
+    @Override
+    public TaskHandle runGlobal(Runnable task) {
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTask(plugin, task);
+        return bukkitTask::cancel;
+    }
+    
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return bukkitTask::cancel;
+    }
+    
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+}
@@ -0,0 +1,137 @@
+package com.wdp.help.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler for Folia: per-player work goes to the player's entity scheduler,
+ * server-wide work to the global region scheduler.
+ * The plugin compiles against the Spigot API, so Folia's scheduler API is
+ * resolved reflectively once at construction.
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+    
+    private static final String REGIONIZED_SERVER = "io.papermc.paper.threadedregions.RegionizedServer";
+    
+    private final Plugin plugin;
+    
+    // Entity scheduler
+    private final Method getEntityScheduler;
+    private final Method entityRun;
+    private final Method entityRunAtFixedRate;
+    
+    // Global region scheduler
+    private final Object globalScheduler;
+    private final Method globalRun;
+    private final Method globalRunAtFixedRate;
+    
+    // io.papermc.paper.threadedregions.scheduler.ScheduledTask#cancel
+    private final Method taskCancel;
+    
+    public FoliaTaskScheduler(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+        
+        Class<?> entitySchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.EntityScheduler");
+        Class<?> globalSchedulerClass = Class.forName("io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler");
+        Class<?> scheduledTaskClass = Class.forName("io.papermc.paper.threadedregions.scheduler.ScheduledTask");
+        
+        this.getEntityScheduler = org.bukkit.entity.Entity.class.getMethod("getScheduler");
+        this.entityRun = entitySchedulerClass.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+        this.entityRunAtFixedRate = entitySchedulerClass.getMethod("runAtFixedRate",
+                Plugin.class, Consumer.class, Runnable.class, long.class, long.class);
+        
+        this.globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        this.globalRun = globalSchedulerClass.getMethod("run", Plugin.class, Consumer.class);
+        this.globalRunAtFixedRate = globalSchedulerClass.getMethod("runAtFixedRate",
+                Plugin.class, Consumer.class, long.class, long.class);
+        
+        this.taskCancel = scheduledTaskClass.getMethod("cancel");
+    }
+    
+    /**
+     * Check whether the server is running Folia
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName(REGIONIZED_SERVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public TaskHandle runForPlayer(Player player, Runnable task) {
+        try {
+            Object scheduler = getEntityScheduler.invoke(player);
+            Object scheduled = entityRun.invoke(scheduler, plugin, consumer(task), null);
+            return handle(scheduled);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Failed to schedule player task: " + e.getMessage());
+            return TaskHandle.NONE;
+        }
+    }
+    
+    @Override
+    public TaskHandle runForPlayerTimer(Player player, Runnable task, long delayTicks, long periodTicks) {
+        try {
+            Object scheduler = getEntityScheduler.invoke(player);
+            // Folia requires an initial delay of at least one tick
+            Object scheduled = entityRunAtFixedRate.invoke(scheduler, plugin, consumer(task), null,
+                    Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+            return handle(scheduled);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Failed to schedule player timer: " + e.getMessage());
+            return TaskHandle.NONE;
+        }
+    }
+    
+    @Override
+    public TaskHandle runGlobal(Runnable task) {
+        try {
+            return handle(globalRun.invoke(globalScheduler, plugin, consumer(task)));
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Failed to schedule global task: " + e.getMessage());
+            return TaskHandle.NONE;
+        }
+    }
+    
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        try {
+            Object scheduled = globalRunAtFixedRate.invoke(globalScheduler, plugin, consumer(task),
+                    Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+            return handle(scheduled);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Failed to schedule global timer: " + e.getMessage());
+            return TaskHandle.NONE;
+        }
+    }
+    
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+    
+    private Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+    
+    private TaskHandle handle(Object scheduled) {
+        // Entity schedulers return null when the entity was already removed
+        if (scheduled == null) {
+            return TaskHandle.NONE;
+        }
+        return () -> {
+            try {
+                taskCancel.invoke(scheduled);
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().warning("Failed to cancel task: " + e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.wdp.help.scheduler;
+
+/**
+ * Handle to a scheduled task, independent of the server scheduler in use
+ */
+public interface TaskHandle {
+    
+    /**
+     * Handle for work that already ran or was never scheduled
+     */
+    TaskHandle NONE = () -> { };
+    
+    /**
+     * Cancel the task if it has not run yet / stop a repeating task
+     */
+    void cancel();
+}
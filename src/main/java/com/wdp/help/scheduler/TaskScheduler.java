@@ -0,0 +1,51 @@
+package com.wdp.help.scheduler;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Scheduler abstraction over Bukkit's single main thread and Folia's
+ * region threads. Per-player work runs on the thread that owns the player
+ * (the main thread on Bukkit/Paper, the player's entity scheduler on Folia).
+ */
+public interface TaskScheduler {
+    
+    /**
+     * Run a task on the thread owning the player (next tick)
+     */
+    TaskHandle runForPlayer(Player player, Runnable task);
+    
+    /**
+     * Run a repeating task on the thread owning the player
+     */
+    TaskHandle runForPlayerTimer(Player player, Runnable task, long delayTicks, long periodTicks);
+    
+    /**
+     * Run a server-wide task (main thread / global region, next tick)
+     */
+    TaskHandle runGlobal(Runnable task);
+    
+    /**
+     * Run a repeating server-wide task (main thread / global region)
+     */
+    TaskHandle runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+    
+    /**
+     * Whether per-player tasks may run on different threads at the same time
+     */
+    boolean isRegionThreaded();
+    
+    /**
+     * Create the scheduler matching the running server
+     */
+    static TaskScheduler create(Plugin plugin) {
+        if (FoliaTaskScheduler.isSupported()) {
+            try {
+                return new FoliaTaskScheduler(plugin);
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().warning("Folia detected but its scheduler API could not be loaded, using Bukkit scheduler: " + e.getMessage());
+            }
+        }
+        return new BukkitTaskScheduler(plugin);
+    }
+}
@@ -0,0 +1,76 @@
+package com.wdp.help.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A request ends exactly once: finished or cancelled
+ */
+class AIRequestHandleTest {
+    
+    @Test
+    void cancelAfterFinishIsIgnored() {
+        AIRequestHandle handle = new AIRequestHandle();
+        AtomicInteger cancelCallbacks = new AtomicInteger();
+        handle.onCancel(cancelCallbacks::incrementAndGet);
+        
+        assertTrue(handle.finish());
+        assertFalse(handle.cancel());
+        assertFalse(handle.finish());
+        assertTrue(handle.isFinished());
+        assertFalse(handle.isCancelled());
+        assertEquals(0, cancelCallbacks.get());
+    }
+    
+    @Test
+    void finishAfterCancelDeliversNothing() {
+        AIRequestHandle handle = new AIRequestHandle();
+        AtomicInteger cancelCallbacks = new AtomicInteger();
+        handle.onCancel(cancelCallbacks::incrementAndGet);
+        
+        assertTrue(handle.cancel());
+        assertFalse(handle.finish());
+        assertTrue(handle.isCancelled());
+        assertFalse(handle.isFinished());
+        assertEquals(1, cancelCallbacks.get());
+    }
+    
+    @Test
+    void racingCancelAndFinishHaveOneWinner() throws Exception {
+        for (int i = 0; i < 2_000; i++) {
+            AIRequestHandle handle = new AIRequestHandle();
+            AtomicInteger cancelCallbacks = new AtomicInteger();
+            handle.onCancel(cancelCallbacks::incrementAndGet);
+            
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger delivered = new AtomicInteger();
+            Thread canceller = new Thread(() -> {
+                await(start);
+                handle.cancel();
+            });
+            canceller.start();
+            start.countDown();
+            if (handle.finish()) {
+                delivered.incrementAndGet();
+            }
+            canceller.join();
+            
+            assertEquals(1, delivered.get() + cancelCallbacks.get(), "exactly one of finish and cancel wins");
+            assertTrue(handle.isFinished() != handle.isCancelled());
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
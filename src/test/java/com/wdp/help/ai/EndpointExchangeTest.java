@@ -0,0 +1,254 @@
+package com.wdp.help.ai;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Failover and hedging of EndpointExchange against stub HTTP servers
+ */
+class EndpointExchangeTest {
+    
+    private static final long HEDGE_DELAY_MILLIS = 150L;
+    
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private ExecutorService hedgeExecutor;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService timer;
+    
+    // What the transport saw, per endpoint
+    private final Map<Endpoint, AIRequestHandle> attempts = new ConcurrentHashMap<>();
+    private final Map<Endpoint, RequestDeadline> deadlines = new ConcurrentHashMap<>();
+    
+    private final List<String> chunks = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private final List<AIService.AIResponse> responses = Collections.synchronizedList(new ArrayList<>());
+    
+    @BeforeEach
+    void setUp() {
+        hedgeExecutor = Executors.newCachedThreadPool();
+        serverExecutor = Executors.newCachedThreadPool();
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+        hedgeExecutor.shutdownNow();
+        serverExecutor.shutdownNow();
+        timer.shutdownNow();
+    }
+    
+    @Test
+    @Timeout(10)
+    void hedgeOvertakesSlowEndpoint() throws Exception {
+        Endpoint slow = endpoint("slow", slowServer());
+        Endpoint fast = endpoint("fast", answeringServer("fast"));
+        EndpointRouter router = router(slow, fast);
+        AIRequestHandle handle = new AIRequestHandle();
+        
+        exchange(router, handle, HEDGE_DELAY_MILLIS).run(chunks::add, tool -> { }, responses::add, errors::add);
+        
+        assertEquals(List.of("fast"), chunks);
+        assertEquals(1, responses.size());
+        assertEquals(List.of(), errors);
+        assertTrue(attempts.get(slow).isCancelled(), "the slow attempt is cancelled");
+        assertFalse(attempts.get(fast).isCancelled());
+        assertFalse(handle.isCancelled());
+        
+        // The loser ran at least until the hedge started, that counts as its latency
+        long slowLatency = route(router, slow).getEwmaLatencyMillis();
+        assertTrue(slowLatency >= HEDGE_DELAY_MILLIS, () -> "overtaken latency " + slowLatency);
+        assertTrue(route(router, fast).getEwmaLatencyMillis() < slowLatency);
+        assertEquals(0.0, route(router, slow).getBreaker().getFailureRate());
+    }
+    
+    @Test
+    @Timeout(10)
+    void hedgeGetsItsOwnDeadline() throws Exception {
+        Endpoint slow = endpoint("slow", slowServer());
+        Endpoint fast = endpoint("fast", answeringServer("fast"));
+        RequestDeadline question = new RequestDeadline(1000, 5000, 5000, 10_000);
+        
+        exchange(router(slow, fast), new AIRequestHandle(), question, HEDGE_DELAY_MILLIS)
+                .run(chunks::add, tool -> { }, responses::add, errors::add);
+        
+        assertEquals(1, responses.size());
+        RequestDeadline primary = deadlines.get(slow);
+        RequestDeadline hedge = deadlines.get(fast);
+        assertNotNull(primary);
+        assertTrue(primary != hedge && primary != question && hedge != question);
+        // Starting the hedge did not restart the primary's first-token budget
+        assertTrue(primary.getFirstTokenLatencyMillis() >= HEDGE_DELAY_MILLIS);
+        // The question's first-token latency is the hedge's, measured from the hedge's own start
+        long latency = question.getFirstTokenLatencyMillis();
+        assertTrue(latency < HEDGE_DELAY_MILLIS, () -> "first-token latency " + latency);
+    }
+    
+    @Test
+    @Timeout(10)
+    void failsOverAfterServerError() throws Exception {
+        Endpoint broken = endpoint("broken", failingServer(500));
+        Endpoint fast = endpoint("fast", answeringServer("fast"));
+        EndpointRouter router = router(broken, fast);
+        AIRequestHandle handle = new AIRequestHandle();
+        
+        exchange(router, handle, 0L).run(chunks::add, tool -> { }, responses::add, errors::add);
+        
+        assertEquals(List.of("fast"), chunks);
+        assertEquals(1, responses.size());
+        assertEquals(List.of(), errors);
+        assertEquals(500, attempts.get(broken).getStatus());
+        assertEquals(200, attempts.get(fast).getStatus());
+    }
+    
+    @Test
+    @Timeout(10)
+    void reportsLastErrorWhenEveryEndpointFails() throws Exception {
+        Endpoint first = endpoint("first", failingServer(500));
+        Endpoint second = endpoint("second", failingServer(503));
+        
+        exchange(router(first, second), new AIRequestHandle(), 0L).run(chunks::add, tool -> { }, responses::add, errors::add);
+        
+        assertEquals(2, attempts.size());
+        assertEquals(List.of("error.api"), errors);
+        assertEquals(0, responses.size());
+    }
+    
+    private EndpointExchange exchange(EndpointRouter router, AIRequestHandle handle, long hedgeDelay) {
+        return exchange(router, handle, new RequestDeadline(1000, 5000, 5000, 10_000), hedgeDelay);
+    }
+    
+    private EndpointExchange exchange(EndpointRouter router, AIRequestHandle handle, RequestDeadline deadline, long hedgeDelay) {
+        return new EndpointExchange(router, this::send, handle, deadline, hedgeExecutor,
+                (task, delay) -> timer.schedule(task, delay, TimeUnit.MILLISECONDS), endpoint -> hedgeDelay, false);
+    }
+    
+    /**
+     * Transport: one plain text line per response, like a single streamed delta
+     */
+    private void send(Endpoint endpoint, AIRequestHandle attempt, RequestDeadline deadline, int attemptIndex,
+                      Consumer<String> onChunk, Consumer<String> onToolUse,
+                      Consumer<AIService.AIResponse> onComplete,
+                      Consumer<String> onError) throws Exception {
+        attempts.put(endpoint, attempt);
+        deadlines.put(endpoint, deadline);
+        deadline.onRequestStart();
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint.getBaseUrl() + "/chat/completions").openConnection();
+        attempt.attach(connection);
+        try {
+            connection.setConnectTimeout(deadline.getConnectTimeoutMillis());
+            connection.setReadTimeout(deadline.getReadTimeoutMillis());
+            int status = connection.getResponseCode();
+            attempt.setStatus(status);
+            if (status != 200) {
+                onError.accept("error.api");
+                return;
+            }
+            
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                deadline.onChunk();
+                attempt.firstToken();
+                onChunk.accept(line);
+                onComplete.accept(new AIService.AIResponse(line, line, "Question", 10));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    private String answeringServer(String answer) throws Exception {
+        return server(exchange -> {
+            byte[] body = answer.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+    }
+    
+    private String slowServer() throws Exception {
+        return server(exchange -> {
+            try {
+                releaseSlow.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "slow".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+    }
+    
+    private String failingServer(int status) throws Exception {
+        return server(exchange -> {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+    }
+    
+    private String server(HttpHandler handler) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", handler);
+        server.setExecutor(serverExecutor);
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    private static Endpoint endpoint(String name, String baseUrl) {
+        return new Endpoint(name, baseUrl, "", null, 1);
+    }
+    
+    /**
+     * Router that tries the endpoints in the given order (none has latency samples yet)
+     */
+    private static EndpointRouter router(Endpoint... endpoints) {
+        EndpointRouter router = new EndpointRouter((endpoint, from, to, reason) -> { });
+        router.configure(List.of(endpoints), true, 10, 5, 50.0, 0L, 100.0, 30);
+        return router;
+    }
+    
+    private static EndpointRouter.Route route(EndpointRouter router, Endpoint endpoint) {
+        for (EndpointRouter.Route route : router.getRoutes()) {
+            if (route.getEndpoint().equals(endpoint)) {
+                return route;
+            }
+        }
+        throw new AssertionError("no route for " + endpoint);
+    }
+}
@@ -0,0 +1,182 @@
+package com.wdp.help.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispatch order of FairRequestQueue: priorities, usage fairness, requeued requests and published positions
+ */
+class FairRequestQueueTest {
+    
+    private static final PriorityTier STAFF = new PriorityTier("staff", "wdphelp.priority.staff", 10, 1);
+    private static final PriorityTier SUPPORTER = new PriorityTier("supporter", "wdphelp.priority.supporter", 0, 2);
+    
+    private final FairRequestQueue queue = new FairRequestQueue(20, 60);
+    
+    @Test
+    void staffBeforeDefault() {
+        FairRequestQueue.Entry first = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        FairRequestQueue.Entry second = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        FairRequestQueue.Entry staff = offer(UUID.randomUUID(), STAFF);
+        
+        assertSame(staff, poll());
+        assertSame(first, poll());
+        assertSame(second, poll());
+        assertNull(poll());
+    }
+    
+    @Test
+    void freshPlayerBeforeHeavyOne() {
+        UUID heavy = UUID.randomUUID();
+        offer(heavy, PriorityTier.DEFAULT);
+        poll();
+        
+        // The heavy player asked first, but has used the queue recently
+        FairRequestQueue.Entry again = offer(heavy, PriorityTier.DEFAULT);
+        FairRequestQueue.Entry fresh = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        
+        assertSame(fresh, poll());
+        assertSame(again, poll());
+    }
+    
+    @Test
+    void plainRoundRobinWithoutUsagePenalty() {
+        FairRequestQueue queue = new FairRequestQueue(20, 0);
+        UUID heavy = UUID.randomUUID();
+        queue.offer(entry(heavy, PriorityTier.DEFAULT));
+        queue.poll(() -> true);
+        
+        FairRequestQueue.Entry again = entry(heavy, PriorityTier.DEFAULT);
+        FairRequestQueue.Entry fresh = entry(UUID.randomUUID(), PriorityTier.DEFAULT);
+        queue.offer(again);
+        queue.offer(fresh);
+        
+        assertSame(again, queue.poll(() -> true));
+        assertSame(fresh, queue.poll(() -> true));
+    }
+    
+    @Test
+    void requeuedEntrySkippedUntilReady() throws Exception {
+        UUID limited = UUID.randomUUID();
+        FairRequestQueue.Entry waiting = offer(limited, PriorityTier.DEFAULT);
+        assertSame(waiting, poll());
+        
+        queue.requeue(waiting, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200));
+        FairRequestQueue.Entry other = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        assertEquals(2, queue.size());
+        
+        assertSame(other, poll());
+        // Nothing is ready, so no limiter slot is asked for
+        AtomicInteger admits = new AtomicInteger();
+        assertNull(queue.poll(() -> admits.incrementAndGet() > 0));
+        assertEquals(0, admits.get());
+        assertEquals(1, queue.size());
+        
+        Thread.sleep(250);
+        assertSame(waiting, poll());
+        assertEquals(0, queue.size());
+    }
+    
+    @Test
+    void requeuedEntryKeepsItsPlace() {
+        UUID player = UUID.randomUUID();
+        FairRequestQueue.Entry first = offer(player, PriorityTier.DEFAULT);
+        FairRequestQueue.Entry second = offer(player, PriorityTier.DEFAULT);
+        assertSame(first, poll());
+        
+        queue.requeue(first, System.nanoTime());
+        assertSame(first, poll());
+        assertSame(second, poll());
+    }
+    
+    @Test
+    void refusedAdmissionLeavesEntryQueued() {
+        FairRequestQueue.Entry entry = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        
+        assertNull(queue.poll(() -> false));
+        assertEquals(1, queue.size());
+        assertSame(entry, poll());
+    }
+    
+    @Test
+    void rejectsWhenFull() {
+        FairRequestQueue queue = new FairRequestQueue(2, 60);
+        assertTrue(queue.offer(entry(UUID.randomUUID(), PriorityTier.DEFAULT)));
+        assertTrue(queue.offer(entry(UUID.randomUUID(), PriorityTier.DEFAULT)));
+        assertFalse(queue.offer(entry(UUID.randomUUID(), PriorityTier.DEFAULT)));
+        
+        FairRequestQueue.Entry dispatched = queue.poll(() -> true);
+        queue.offer(entry(UUID.randomUUID(), PriorityTier.DEFAULT));
+        // An admitted request going back may exceed the capacity
+        queue.requeue(dispatched, System.nanoTime());
+        assertEquals(3, queue.size());
+    }
+    
+    @Test
+    void removeDropsWaitingRequest() {
+        FairRequestQueue.Entry gone = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        FairRequestQueue.Entry kept = offer(UUID.randomUUID(), PriorityTier.DEFAULT);
+        
+        assertTrue(queue.remove(gone.getHandle()));
+        assertFalse(queue.remove(gone.getHandle()));
+        assertSame(kept, poll());
+        assertNull(poll());
+    }
+    
+    @Test
+    void publishedPositionsMatchPollOrder() {
+        UUID heavy = UUID.randomUUID();
+        UUID supporter = UUID.randomUUID();
+        offer(heavy, PriorityTier.DEFAULT);
+        offer(heavy, PriorityTier.DEFAULT);
+        poll();
+        poll();
+        
+        List<FairRequestQueue.Entry> waiting = new ArrayList<>();
+        waiting.add(offer(heavy, PriorityTier.DEFAULT));
+        waiting.add(offer(heavy, PriorityTier.DEFAULT));
+        waiting.add(offer(supporter, SUPPORTER));
+        waiting.add(offer(UUID.randomUUID(), PriorityTier.DEFAULT));
+        waiting.add(offer(supporter, SUPPORTER));
+        waiting.add(offer(UUID.randomUUID(), PriorityTier.DEFAULT));
+        
+        // A dispatched request put back to wait out a rate limit is counted too
+        FairRequestQueue.Entry limited = offer(UUID.randomUUID(), STAFF);
+        assertSame(limited, poll());
+        queue.requeue(limited, System.nanoTime());
+        waiting.add(limited);
+        
+        queue.publishPositions();
+        
+        for (int position = 1; position <= waiting.size(); position++) {
+            FairRequestQueue.Entry next = poll();
+            assertEquals(position, next.getHandle().getQueuePosition(), "position of the request polled " + position + "th");
+        }
+        assertNull(poll());
+    }
+    
+    private FairRequestQueue.Entry offer(UUID player, PriorityTier tier) {
+        FairRequestQueue.Entry entry = entry(player, tier);
+        assertTrue(queue.offer(entry));
+        return entry;
+    }
+    
+    private FairRequestQueue.Entry poll() {
+        return queue.poll(() -> true);
+    }
+    
+    private static FairRequestQueue.Entry entry(UUID player, PriorityTier tier) {
+        return new FairRequestQueue.Entry(player, tier, new AIRequestHandle(), () -> { }, () -> { });
+    }
+}
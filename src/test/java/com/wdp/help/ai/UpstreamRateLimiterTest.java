@@ -0,0 +1,138 @@
+package com.wdp.help.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delay header parsing, bucket debt and refunds of UpstreamRateLimiter
+ */
+class UpstreamRateLimiterTest {
+    
+    private static final long NOW_MILLIS = 1_700_000_000_000L;
+    // Slack for time passing while a test runs
+    private static final long SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    
+    @Test
+    void parsesSeconds() {
+        assertEquals(TimeUnit.SECONDS.toNanos(20), UpstreamRateLimiter.parseDelayNanos("20", NOW_MILLIS));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), UpstreamRateLimiter.parseDelayNanos(" 0.5 ", NOW_MILLIS));
+    }
+    
+    @Test
+    void parsesDurations() {
+        assertEquals(TimeUnit.SECONDS.toNanos(90), UpstreamRateLimiter.parseDelayNanos("1m30s", NOW_MILLIS));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), UpstreamRateLimiter.parseDelayNanos("250ms", NOW_MILLIS));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), UpstreamRateLimiter.parseDelayNanos("1.5s", NOW_MILLIS));
+        assertEquals(TimeUnit.MINUTES.toNanos(60), UpstreamRateLimiter.parseDelayNanos("1h", NOW_MILLIS));
+    }
+    
+    @Test
+    void parsesHttpDates() {
+        String inThirtySeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(NOW_MILLIS + 30_000), ZoneOffset.UTC));
+        assertEquals(TimeUnit.SECONDS.toNanos(30), UpstreamRateLimiter.parseDelayNanos(inThirtySeconds, NOW_MILLIS));
+    }
+    
+    @Test
+    void parsesEpochTimestamps() {
+        assertEquals(TimeUnit.SECONDS.toNanos(45), UpstreamRateLimiter.parseDelayNanos(String.valueOf(NOW_MILLIS / 1000 + 45), NOW_MILLIS));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1234), UpstreamRateLimiter.parseDelayNanos(String.valueOf(NOW_MILLIS + 1234), NOW_MILLIS));
+    }
+    
+    @Test
+    void ignoresMissingPastAndInvalidValues() {
+        assertEquals(0L, UpstreamRateLimiter.parseDelayNanos(null, NOW_MILLIS));
+        assertEquals(0L, UpstreamRateLimiter.parseDelayNanos("", NOW_MILLIS));
+        assertEquals(0L, UpstreamRateLimiter.parseDelayNanos("soon", NOW_MILLIS));
+        assertEquals(0L, UpstreamRateLimiter.parseDelayNanos("1m30", NOW_MILLIS));
+        assertEquals(0L, UpstreamRateLimiter.parseDelayNanos(String.valueOf(NOW_MILLIS - 5000), NOW_MILLIS));
+    }
+    
+    @Test
+    void reservationsRunIntoDebt() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(60, 0, 0);
+        for (int i = 0; i < 60; i++) {
+            assertEquals(0L, limiter.reserve(null, 100, 0L));
+        }
+        
+        // One request per second refills: the next waits a second, the one after two
+        assertAround(TimeUnit.SECONDS.toNanos(1), limiter.reserve(null, 100, TimeUnit.SECONDS.toNanos(5)));
+        assertEquals(-1L, limiter.reserve(null, 100, TimeUnit.MILLISECONDS.toNanos(1500)));
+        assertAround(TimeUnit.SECONDS.toNanos(2), limiter.reserve(null, 100, TimeUnit.SECONDS.toNanos(5)));
+    }
+    
+    @Test
+    void tokenBucketWaitsForTheMissingTokens() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(0, 1000, 0);
+        assertEquals(0L, limiter.reserve(null, 800, 0L));
+        // 600 tokens missing at 1000 per minute
+        assertAround(TimeUnit.SECONDS.toNanos(36), limiter.reserve(null, 800, TimeUnit.MINUTES.toNanos(1)));
+    }
+    
+    @Test
+    void refundPaysBackDebtButNotPastCapacity() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(60, 0, 0);
+        limiter.refund(null, 100);
+        for (int i = 0; i < 60; i++) {
+            limiter.reserve(null, 100, 0L);
+        }
+        assertAround(TimeUnit.SECONDS.toNanos(1), limiter.reserve(null, 100, TimeUnit.SECONDS.toNanos(5)));
+        
+        // The cancelled request gives its reservation back, the next one waits a second again
+        limiter.refund(null, 100);
+        assertAround(TimeUnit.SECONDS.toNanos(1), limiter.reserve(null, 100, TimeUnit.SECONDS.toNanos(5)));
+    }
+    
+    @Test
+    void playerBucketsAreSeparate() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(0, 0, 2);
+        UUID heavy = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        assertEquals(0L, limiter.reserve(heavy, 100, 0L));
+        assertEquals(0L, limiter.reserve(heavy, 100, 0L));
+        
+        assertAround(TimeUnit.SECONDS.toNanos(30), limiter.getPlayerWaitNanos(heavy));
+        assertEquals(0L, limiter.getPlayerWaitNanos(other));
+        assertEquals(-1L, limiter.reserve(heavy, 100, TimeUnit.SECONDS.toNanos(1)));
+        
+        limiter.refund(heavy, 100);
+        assertEquals(0L, limiter.reserve(heavy, 100, 0L));
+    }
+    
+    @Test
+    void pausesOnRateLimitHeaders() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(0, 0, 0);
+        assertEquals(0L, limiter.onResponse(200, Map.of("x-ratelimit-remaining-requests", "3", "x-ratelimit-reset-requests", "1s")::get));
+        assertEquals(0L, limiter.getPauseRemainingNanos());
+        
+        assertEquals(TimeUnit.SECONDS.toNanos(1),
+                limiter.onResponse(200, Map.of("x-ratelimit-remaining-requests", "0", "x-ratelimit-reset-requests", "1s")::get));
+        assertEquals(TimeUnit.SECONDS.toNanos(5), limiter.onResponse(429, Map.of("Retry-After", "5")::get));
+        // A shorter pause does not cut the running one short
+        assertEquals(0L, limiter.onResponse(429, Map.of("Retry-After", "1")::get));
+        assertAround(TimeUnit.SECONDS.toNanos(5), limiter.getPauseRemainingNanos());
+        // Paused requests wait for the pause
+        assertAround(TimeUnit.SECONDS.toNanos(5), limiter.reserve(null, 100, TimeUnit.SECONDS.toNanos(10)));
+    }
+    
+    @Test
+    void pausesAfterBare429() {
+        UpstreamRateLimiter limiter = new UpstreamRateLimiter(0, 0, 0);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), limiter.onResponse(429, name -> null));
+    }
+    
+    private static void assertAround(long expectedNanos, long actualNanos) {
+        assertTrue(actualNanos <= expectedNanos && actualNanos > expectedNanos - SLACK_NANOS,
+                () -> "expected about " + expectedNanos + "ns but was " + actualNanos + "ns");
+    }
+}
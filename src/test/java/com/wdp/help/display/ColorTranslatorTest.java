@@ -0,0 +1,100 @@
+package com.wdp.help.display;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Golden outputs for ColorTranslator, and equivalence with the regex based
+ * translation it replaced (HEX_PATTERN + translateAlternateColorCodes)
+ */
+class ColorTranslatorTest {
+    
+    // The previous implementation, kept as the reference
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final String ALT_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    
+    private static String legacyTranslate(String message) {
+        Matcher matcher = HEX_PATTERN.matcher(message);
+        StringBuilder builder = new StringBuilder();
+        while (matcher.find()) {
+            StringBuilder magic = new StringBuilder("§x");
+            // Hex digits are emitted lower case, like the legacy codes (the client reads both)
+            for (char c : matcher.group(1).toLowerCase().toCharArray()) {
+                magic.append('§').append(c);
+            }
+            matcher.appendReplacement(builder, Matcher.quoteReplacement(magic.toString()));
+        }
+        matcher.appendTail(builder);
+        
+        char[] chars = builder.toString().toCharArray();
+        for (int i = 0; i < chars.length - 1; i++) {
+            if (chars[i] == '&' && ALT_CODES.indexOf(chars[i + 1]) > -1) {
+                chars[i] = '§';
+                chars[i + 1] = Character.toLowerCase(chars[i + 1]);
+            }
+        }
+        return new String(chars);
+    }
+    
+    @Test
+    void translatesGoldenInputs() {
+        assertEquals("§x§f§f§a§a§0§0Gold", ColorTranslator.translate("&#FFAA00Gold"));
+        assertEquals("§aGreen §lbold§r plain", ColorTranslator.translate("&aGreen &Lbold&r plain"));
+        assertEquals("&#FFAA0 short", ColorTranslator.translate("&#FFAA0 short"));
+        assertEquals("&#GGGGGG &z &", ColorTranslator.translate("&#GGGGGG &z &"));
+        assertEquals("&§a", ColorTranslator.translate("&&a"));
+        assertEquals("§a kept", ColorTranslator.translate("§a kept"));
+    }
+    
+    @Test
+    void rejectsNonAsciiCodes() {
+        // Fullwidth digits pass Character.digit(c, 16) but are not hex colors
+        assertEquals("&#００００００", ColorTranslator.translate("&#００００００"));
+        // The Kelvin sign lower-cases to 'k'
+        assertEquals("&K", ColorTranslator.translate("&K"));
+    }
+    
+    @Test
+    void returnsCodeFreeInputUnchanged() {
+        String plain = "No codes at all";
+        assertSame(plain, ColorTranslator.translate(plain));
+        assertSame(plain, ColorTranslator.translateSections(plain));
+        assertEquals("", ColorTranslator.translate(null));
+    }
+    
+    @Test
+    void translatesSectionsLikeReplaceThenTranslate() {
+        assertEquals("§x§1§2§3§4§5§6Hex §bAqua", ColorTranslator.translateSections("§#123456Hex &bAqua"));
+        assertEquals("§cRed §lbold", ColorTranslator.translateSections("§CRed §lbold"));
+    }
+    
+    @Test
+    void stripsColorsButKeepsFormatting() {
+        assertEquals("§l[AI] §r", ColorTranslator.stripColors("&#FFAA00&l[AI] &7§r"));
+        assertEquals("Plain", ColorTranslator.stripColors("§aPlain"));
+        assertEquals("§oitalic", ColorTranslator.stripColors("&x&oitalic"));
+    }
+    
+    @Test
+    void matchesLegacyTranslation() {
+        String alphabet = "&&&§##aAfF09kKrRxXz ０";
+        Random random = new Random(42);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(16);
+            for (int i = 0; i < length; i++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = input.toString();
+            assertEquals(legacyTranslate(text), ColorTranslator.translate(text), () -> "translate: " + text);
+            assertEquals(legacyTranslate(text.replace('§', '&')), ColorTranslator.translateSections(text),
+                    () -> "translateSections: " + text);
+        }
+    }
+}
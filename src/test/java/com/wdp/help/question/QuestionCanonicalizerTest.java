@@ -0,0 +1,71 @@
+package com.wdp.help.question;
+
+import com.wdp.help.config.ConfigManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which questions share a cached answer with the default question settings
+ */
+class QuestionCanonicalizerTest {
+    
+    // The synonyms of the default config.yml
+    private static final Map<String, String> SYNONYMS = Map.of(
+            "tp", "teleport", "tpa", "teleport", "sethome", "set home", "cash", "money",
+            "coins", "money", "balance", "money", "bal", "money", "dc", "discord");
+    
+    private final QuestionCanonicalizer canonicalizer = new QuestionCanonicalizer(ConfigManager.DEFAULT_STOP_WORDS, SYNONYMS, 3);
+    
+    @Test
+    void canonicalizesRephrasings() {
+        assertEquals("how set home", canonicalizer.canonicalize("How do I set a home?"));
+        assertEquals("how set home", canonicalizer.canonicalize("how to set homes"));
+        assertEquals("when next event", canonicalizer.canonicalize("When is the next event?"));
+    }
+    
+    @Test
+    void matchesSameQuestion() {
+        assertMatch("How do I set a home?", "how to set homes");
+        assertMatch("How do I /sethome", "how do i set home");
+        assertMatch("How do I tp to my friend?", "How do I teleport to a friend");
+        assertMatch("What is my balance?", "what's my bal");
+        assertMatch("Where is the next event?", "where is the next event");
+    }
+    
+    @Test
+    void keepsQuestionWordsApart() {
+        assertNoMatch("When is the next event?", "Where is the next event?");
+        assertNoMatch("Where do I find diamonds", "How do I find diamonds");
+        assertNoMatch("What is the next event?", "When is the next event?");
+        assertNoMatch("Why can't I fly?", "How do I fly?");
+        assertNoMatch("Can I fly?", "How do I fly?");
+        assertNoMatch("Which rank can fly?", "Why can a rank fly?");
+    }
+    
+    @Test
+    void keepsDifferentTopicsApart() {
+        assertNoMatch("How do I set a home?", "How do I delete a home?");
+        assertNoMatch("How do I join the discord?", "How do I link my discord?");
+        assertNoMatch("What is my balance?", "What is my rank?");
+    }
+    
+    private void assertMatch(String a, String b) {
+        assertTrue(canonicalizer.isSimilar(canonicalizer.fingerprint(a), canonicalizer.fingerprint(b)),
+                () -> "'" + a + "' and '" + b + "' should match: " + describe(a, b));
+    }
+    
+    private void assertNoMatch(String a, String b) {
+        assertFalse(canonicalizer.isSimilar(canonicalizer.fingerprint(a), canonicalizer.fingerprint(b)),
+                () -> "'" + a + "' and '" + b + "' should not match: " + describe(a, b));
+    }
+    
+    private String describe(String a, String b) {
+        return canonicalizer.canonicalize(a) + " / " + canonicalizer.canonicalize(b) + ", distance "
+                + SimHash.distance(canonicalizer.fingerprint(a), canonicalizer.fingerprint(b));
+    }
+}